@@ -0,0 +1,132 @@
+package bigint;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+
+/**
+ * Benchmarks for the bigint package. Measures parse, add (same and mixed sign),
+ * multiply and toString for operand sizes from 10 to 1,000,000 digits, and prints the
+ * throughput and allocation rate of each, so regressions and the crossover points of
+ * the multiply thresholds are visible.
+ *
+ * Every benchmark is warmed up before it is measured. Allocation is read from the
+ * HotSpot per-thread allocation counter, and shown as n/a on JVMs without one.
+ *
+ * Usage: java bigint.BigBench [maxDigits] [measureMillis]
+ *
+ */
+public class BigBench {
+
+	/**
+	 * Operand sizes, in decimal digits
+	 */
+	static final int[] SIZES = {10, 100, 1000, 10000, 100000, 1000000};
+
+	static int maxDigits = 1000000;
+	static long measureMillis = 1000;
+
+	/**
+	 * A single benchmarked operation, on operands prepared beforehand
+	 */
+	interface Operation {
+		Object run();
+	}
+
+	public static void main(String[] args) {
+		if (args.length > 0) {
+			maxDigits = Integer.parseInt(args[0]);
+		}
+		if (args.length > 1) {
+			measureMillis = Long.parseLong(args[1]);
+		}
+		System.out.printf("%-12s %9s %15s %15s %15s%n", "benchmark", "digits", "ops/s", "us/op", "bytes/op");
+
+		Random random = new Random(112);
+		for (int digits : SIZES) {
+			if (digits > maxDigits) {
+				break;
+			}
+			final String firstText = randomDigits(random, digits);
+			final String secondText = randomDigits(random, digits);
+			final BigInteger first = BigInteger.parse(firstText);
+			final BigInteger second = BigInteger.parse(secondText);
+			final BigInteger negativeSecond = BigInteger.parse("-" + secondText);
+
+			measure("parse", digits, new Operation() {
+				public Object run() {
+					return BigInteger.parse(firstText);
+				}
+			});
+			measure("add", digits, new Operation() {
+				public Object run() {
+					return BigInteger.add(first, second);
+				}
+			});
+			measure("add-mixed", digits, new Operation() {
+				public Object run() {
+					return BigInteger.add(first, negativeSecond);
+				}
+			});
+			measure("multiply", digits, new Operation() {
+				public Object run() {
+					return BigInteger.multiply(first, second);
+				}
+			});
+			measure("toString", digits, new Operation() {
+				public Object run() {
+					return first.toString();
+				}
+			});
+		}
+	}
+
+	//This method warms up an operation, then times it and prints one line of results
+	private static void measure(String name, int digits, Operation operation) {
+		run(operation, measureMillis / 2);
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long bytesBefore = allocatedBytes(threads);
+		long start = System.nanoTime();
+		long ops = run(operation, measureMillis);
+		long elapsed = System.nanoTime() - start;
+		long bytesAfter = allocatedBytes(threads);
+
+		String bytesPerOp = bytesBefore < 0 ? "n/a" : String.format("%.0f", (bytesAfter - bytesBefore) / (double) ops);
+		System.out.printf("%-12s %9d %15.1f %15.3f %15s%n", name, digits,
+				ops * 1e9 / elapsed, elapsed / 1e3 / ops, bytesPerOp);
+	}
+
+	//This method runs an operation repeatedly for at least the given time, and at least once
+	private static long run(Operation operation, long millis) {
+		long deadline = System.nanoTime() + millis * 1000000L;
+		long ops = 0;
+		Object sink = null;
+		do {
+			sink = operation.run();
+			ops++;
+		} while (System.nanoTime() < deadline);
+		if (sink == null) {
+			throw new IllegalStateException("Operation returned nothing");
+		}
+		return ops;
+	}
+
+	//This method returns the bytes allocated so far by this thread, or -1 if the JVM does not count them
+	private static long allocatedBytes(ThreadMXBean threads) {
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	//This method returns a random integer string with the given number of digits
+	private static String randomDigits(Random random, int digits) {
+		StringBuilder sb = new StringBuilder(digits);
+		sb.append((char) ('1' + random.nextInt(9)));
+		for (int i = 1; i < digits; i++) {
+			sb.append((char) ('0' + random.nextInt(10)));
+		}
+		return sb.toString();
+	}
+}
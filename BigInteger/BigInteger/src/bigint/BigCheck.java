@@ -0,0 +1,275 @@
+package bigint;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Differential checks for the arithmetic of the bigint package. Products, quotients,
+ * remainders, powers, modular powers and gcds are compared with java.math.BigInteger,
+ * and the Karatsuba, Toom-Cook 3 and NTT kernels are compared with schoolbook
+ * multiplication, and Burnikel-Ziegler with algorithm D, limb for limb.
+ *
+ * Operand sizes are taken at, just below and just above every threshold, and across
+ * limb boundaries. Random operands are mixed with all nines and powers of ten, which
+ * carry through every limb. The product checks are also run with lowered thresholds,
+ * so that the recursive and parallel paths are exercised on small operands.
+ *
+ * Every failure is printed; the exit status is 1 if there were any.
+ *
+ * Usage: java bigint.BigCheck [seed] [rounds]
+ *
+ */
+public class BigCheck {
+
+	static Random random;
+	static int checks;
+	static int failures;
+
+	public static void main(String[] args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : System.nanoTime();
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+		random = new Random(seed);
+		System.out.println("seed " + seed + ", " + rounds + " rounds");
+
+		for (int round = 0; round < rounds; round++) {
+			checkKernels();
+			checkMultiply();
+			checkDivide();
+			checkPowers();
+			checkGcd();
+		}
+
+		//Again with low thresholds, so small operands go through every method
+		int karatsuba = BigInteger.karatsubaThreshold;
+		int toomCook = BigInteger.toomCookThreshold;
+		int ntt = BigInteger.nttThreshold;
+		int parallel = BigInteger.parallelThreshold;
+		int burnikelZiegler = BigInteger.burnikelZieglerThreshold;
+		try {
+			BigInteger.karatsubaThreshold = 36;
+			BigInteger.toomCookThreshold = 90;
+			BigInteger.nttThreshold = 900;
+			BigInteger.parallelThreshold = 180;
+			BigInteger.burnikelZieglerThreshold = 36;
+			for (int round = 0; round < rounds; round++) {
+				checkMultiply();
+				checkDivide();
+				checkPowers();
+			}
+		}
+		finally {
+			BigInteger.karatsubaThreshold = karatsuba;
+			BigInteger.toomCookThreshold = toomCook;
+			BigInteger.nttThreshold = ntt;
+			BigInteger.parallelThreshold = parallel;
+			BigInteger.burnikelZieglerThreshold = burnikelZiegler;
+		}
+
+		System.out.println(checks + " checks, " + failures + " failures");
+		if (failures > 0) {
+			System.exit(1);
+		}
+	}
+
+	//This method compares each multiplication and division kernel with the plain method
+	static void checkKernels() {
+		int[] lengths = {1, 2, 3, 4, 5, 6, 7, 8, 9, 79, 80, 81, 239, 240, 241, 1000};
+		for (int aLength : lengths) {
+			for (int bLength : new int[] {aLength, Math.max(1, aLength - 1), Math.max(1, aLength / 2 + 1)}) {
+				int[] a = randomLimbs(aLength);
+				int[] b = randomLimbs(bLength);
+				int[] expected = Multiplication.trim(Multiplication.schoolbook(a, b));
+				if (bLength >= 4 && 2 * bLength > aLength) {
+					checkLimbs("karatsuba", aLength, bLength, Multiplication.karatsuba(a, b), expected);
+				}
+				if (bLength >= 6 && 3 * bLength > 2 * aLength) {
+					checkLimbs("toomCook3", aLength, bLength, Multiplication.toomCook3(a, b), expected);
+				}
+				checkLimbs("ntt", aLength, bLength, Multiplication.trim(NumberTheoreticTransform.multiply(a, b)), expected);
+			}
+		}
+		for (int thresholdLimbs : new int[] {2, 3, 4, 8, 80}) {
+			for (int bLength : new int[] {thresholdLimbs, thresholdLimbs + 1, 3 * thresholdLimbs - 1}) {
+				for (int extra : new int[] {thresholdLimbs / 2, thresholdLimbs, 5 * thresholdLimbs + 3}) {
+					int[] a = randomLimbs(bLength + Math.max(extra, 1));
+					int[] b = randomLimbs(bLength);
+					int[][] expected = Division.knuth(a, b);
+					int[][] actual = Division.burnikelZiegler(a, b, thresholdLimbs);
+					checkLimbs("burnikelZiegler quotient", a.length, b.length, actual[0], expected[0]);
+					checkLimbs("burnikelZiegler remainder", a.length, b.length, actual[1], expected[1]);
+				}
+			}
+		}
+	}
+
+	//This method checks products at and around every multiply threshold
+	static void checkMultiply() {
+		int[] thresholds = {BigInteger.karatsubaThreshold, BigInteger.toomCookThreshold,
+				BigInteger.parallelThreshold, BigInteger.nttThreshold};
+		for (int threshold : thresholds) {
+			for (int digits : aroundThreshold(threshold)) {
+				checkProduct(randomText(digits), randomText(digits));
+				checkProduct(randomText(digits), randomText(digits + BigInteger.BASE_DIGITS));
+				if (threshold < BigInteger.nttThreshold) {
+					checkProduct(randomText(3 * digits + 1), randomText(digits));
+				}
+			}
+		}
+		for (int digits = 1; digits <= 40; digits++) {
+			checkProduct(randomText(digits), randomText(1 + random.nextInt(40)));
+		}
+		checkProduct("0", randomText(50));
+		checkProduct(randomText(50), "0");
+	}
+
+	//This method checks quotients, remainders and mod at and around the division threshold
+	static void checkDivide() {
+		int threshold = BigInteger.burnikelZieglerThreshold;
+		for (int digits : aroundThreshold(threshold)) {
+			for (int extra : new int[] {1, threshold / 2, threshold, 4 * threshold + 5}) {
+				checkQuotient(randomText(digits + extra), randomText(digits));
+			}
+		}
+		for (int digits = 1; digits <= 40; digits++) {
+			checkQuotient(randomText(digits + random.nextInt(40)), randomText(digits));
+		}
+		checkQuotient(randomText(30), randomText(60));
+		checkQuotient("0", randomText(20));
+	}
+
+	//This method checks pow, and modPow with Montgomery and plain reduction
+	static void checkPowers() {
+		for (int exponent = 0; exponent <= 40; exponent++) {
+			String base = randomText(1 + random.nextInt(30));
+			BigInteger actual = BigInteger.pow(BigInteger.parse(base), exponent);
+			check("pow " + exponent, base, actual, new java.math.BigInteger(base).pow(exponent));
+		}
+		for (int digits : new int[] {1, 2, 9, 10, 18, 19, 100, BigInteger.karatsubaThreshold + 1}) {
+			for (int i = 0; i < 3; i++) {
+				String modulus = randomText(digits);
+				if (modulus.equals("1")) {
+					modulus = "7";
+				}
+				String oddModulus = modulus.substring(0, modulus.length() - 1) + "7";
+				String evenModulus = modulus.substring(0, modulus.length() - 1) + "4";
+				String base = randomText(digits + random.nextInt(10));
+				String exponent = randomText(1 + random.nextInt(30));
+				checkModPow(base, exponent, oddModulus);
+				checkModPow(base, exponent, evenModulus);
+				checkModPow("-" + base, exponent, oddModulus);
+			}
+		}
+		checkModPow(randomText(20), "0", "13");
+	}
+
+	//This method checks gcd on operands with a large common factor
+	static void checkGcd() {
+		for (int digits : new int[] {1, 9, 10, 100, 1000}) {
+			java.math.BigInteger g = new java.math.BigInteger(randomText(digits));
+			java.math.BigInteger x = g.multiply(new java.math.BigInteger(randomText(1 + random.nextInt(digits + 20))));
+			java.math.BigInteger y = g.multiply(new java.math.BigInteger(randomText(1 + random.nextInt(digits + 20))));
+			BigInteger actual = BigInteger.gcd(BigInteger.parse(x.toString()), BigInteger.parse(y.negate().toString()));
+			check("gcd", x + ", -" + y, actual, x.gcd(y));
+		}
+		String value = randomText(50);
+		check("gcd", value + ", 0", BigInteger.gcd(BigInteger.parse(value), BigInteger.ZERO), new java.math.BigInteger(value));
+	}
+
+//----------Private Helper Methods----------//
+
+	//This method checks one product, with random signs
+	private static void checkProduct(String first, String second) {
+		String a = random.nextBoolean() ? first : "-" + first;
+		String b = random.nextBoolean() ? second : "-" + second;
+		BigInteger actual = BigInteger.multiply(BigInteger.parse(a), BigInteger.parse(b));
+		check("multiply", a + " * " + b, actual, new java.math.BigInteger(a).multiply(new java.math.BigInteger(b)));
+	}
+
+	//This method checks one division, with all four sign combinations
+	private static void checkQuotient(String first, String second) {
+		for (int signs = 0; signs < 4; signs++) {
+			String a = (signs & 1) == 0 ? first : "-" + first;
+			String b = (signs & 2) == 0 ? second : "-" + second;
+			java.math.BigInteger x = new java.math.BigInteger(a);
+			java.math.BigInteger y = new java.math.BigInteger(b);
+			BigInteger[] actual = BigInteger.divideAndRemainder(BigInteger.parse(a), BigInteger.parse(b));
+			java.math.BigInteger[] expected = x.divideAndRemainder(y);
+			check("quotient", a + " / " + b, actual[0], expected[0]);
+			check("remainder", a + " / " + b, actual[1], expected[1]);
+			if (y.signum() > 0) {
+				check("mod", a + " mod " + b, BigInteger.mod(BigInteger.parse(a), BigInteger.parse(b)), x.mod(y));
+			}
+		}
+	}
+
+	//This method checks one modular power
+	private static void checkModPow(String base, String exponent, String modulus) {
+		BigInteger actual = BigInteger.modPow(BigInteger.parse(base), BigInteger.parse(exponent), BigInteger.parse(modulus));
+		java.math.BigInteger expected = new java.math.BigInteger(base).modPow(
+				new java.math.BigInteger(exponent), new java.math.BigInteger(modulus));
+		check("modPow", base + " ^ " + exponent + " mod " + modulus, actual, expected);
+	}
+
+	//This method compares a result with the one java.math gives
+	private static void check(String name, String operands, BigInteger actual, java.math.BigInteger expected) {
+		checks++;
+		String actualText = actual.toString();
+		String expectedText = expected.toString();
+		if (!actualText.equals(expectedText)) {
+			failures++;
+			System.out.println("FAIL " + name + ": " + abbreviate(operands)
+					+ "\n\tgot      " + abbreviate(actualText) + "\n\texpected " + abbreviate(expectedText));
+		}
+	}
+
+	//This method compares the magnitude a kernel gives with the one the plain method gives
+	private static void checkLimbs(String name, int aLength, int bLength, int[] actual, int[] expected) {
+		checks++;
+		if (!Arrays.equals(actual, expected)) {
+			failures++;
+			System.out.println("FAIL " + name + " on " + aLength + " and " + bLength + " limbs");
+		}
+	}
+
+	//This method returns sizes, in digits, at and next to a threshold and the limb boundaries around it
+	private static int[] aroundThreshold(int threshold) {
+		return new int[] {threshold - BigInteger.BASE_DIGITS - 1, threshold - 1, threshold, threshold + 1,
+				threshold + BigInteger.BASE_DIGITS};
+	}
+
+	//This method returns a random magnitude of the given length, without insignificant limbs
+	private static int[] randomLimbs(int length) {
+		int[] limbs = new int[length];
+		boolean nines = random.nextInt(8) == 0;
+		for (int i = 0; i < length; i++) {
+			limbs[i] = nines ? BigInteger.BASE - 1 : random.nextInt(BigInteger.BASE);
+		}
+		if (limbs[length - 1] == 0) {
+			limbs[length - 1] = 1;
+		}
+		return limbs;
+	}
+
+	//This method returns a positive integer string with the given number of digits, sometimes all nines or a power of ten
+	private static String randomText(int digits) {
+		StringBuilder sb = new StringBuilder(digits);
+		int kind = random.nextInt(8);
+		for (int i = 0; i < digits; i++) {
+			if (kind == 0) {
+				sb.append('9');
+			}
+			else if (kind == 1) {
+				sb.append(i == 0 ? '1' : '0');
+			}
+			else {
+				sb.append((char) ((i == 0 ? '1' : '0') + random.nextInt(i == 0 ? 9 : 10)));
+			}
+		}
+		return sb.toString();
+	}
+
+	//This method shortens long numbers in failure messages
+	private static String abbreviate(String text) {
+		return text.length() <= 80 ? text : text.substring(0, 40) + "..(" + text.length() + " chars).." + text.substring(text.length() - 30);
+	}
+}
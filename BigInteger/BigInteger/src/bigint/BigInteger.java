@@ -1,33 +1,142 @@
 package bigint;
 
+import java.util.Arrays;
+
 /**
  * This class encapsulates a BigInteger, i.e. a positive or negative integer with 
  * any number of digits, which overcomes the computer storage length limitation of 
  * an integer.
  * 
+ * Instances are immutable: no operation modifies its operands, so the same BigInteger
+ * can be reused across any number of operations and threads without copying it.
+ * 
  */
 public class BigInteger {
 
 	/**
 	 * True if this is a negative integer
 	 */
-	boolean negative;
+	final boolean negative;
 	
 	/**
 	 * Number of digits in this integer
 	 */
-	int numDigits;
+	final int numDigits;
 	
 	/**
-	 * Reference to the first node of this integer's linked list representation
-	 * NOTE: The linked list stores the Least Significant Digit in the FIRST node.
-	 * For instance, the integer 235 would be stored as:
-	 *    5 --> 3  --> 2
+	 * Magnitude of this integer, packed as base 10^9 limbs (nine decimal digits per int).
+	 * NOTE: Like the DigitNode list this replaces, the Least Significant limb is stored
+	 * FIRST. For instance, the integer 1234567890123 would be stored as:
+	 *    567890123, 1234
 	 *    
-	 * Insignificant digits are not stored. So the integer 00235 will be stored as:
-	 *    5 --> 3 --> 2  (No zeros after the last 2)        
+	 * Insignificant limbs are not stored, so the zero valued integer has an empty array.
+	 * The linked list form is still available through toDigitList().
+	 * 
+	 * An integer that fits in compact starts out without limbs, and magnitude() builds
+	 * them the first time they are needed, so results of the long fast path are a single
+	 * object. The field is volatile so that the limbs built by one thread are seen whole
+	 * by the others.
+	 */
+	private volatile int[] limbs;
+	
+	/**
+	 * Value of this integer as a long, or INFLATED if it does not fit in one. Operations
+	 * on two integers that both fit run on this value with plain long arithmetic, and
+	 * only fall back to the limbs when the result overflows. Integers with a compact
+	 * value are only given limbs when a limb path needs them.
+	 */
+	final long compact;
+	
+	/**
+	 * Number of decimal digits packed into each limb
+	 */
+	static final int BASE_DIGITS = 9;
+	
+	/**
+	 * Value of one limb position, i.e. 10^BASE_DIGITS
+	 */
+	static final int BASE = 1000000000;
+	
+	/**
+	 * Shared magnitude of the zero valued integer
+	 */
+	static final int[] NO_LIMBS = new int[0];
+	
+	/**
+	 * Powers of ten that fit in a single limb, POWERS_OF_TEN[i] == 10^i
+	 */
+	static final int[] POWERS_OF_TEN = {
+		1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000
+	};
+	
+	/**
+	 * Powers of ten that fit in a long, LONG_POWERS_OF_TEN[i] == 10^i
+	 */
+	private static final long[] LONG_POWERS_OF_TEN = new long[19];
+	static {
+		LONG_POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < LONG_POWERS_OF_TEN.length; i++) {
+			LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+	
+	/**
+	 * Marks a compact value for an integer that does not fit in a long
+	 */
+	static final long INFLATED = Long.MIN_VALUE;
+	
+	/**
+	 * Smallest and largest values that valueOf() returns shared instances for
+	 */
+	private static final int SMALLEST_CACHED = -128;
+	private static final int LARGEST_CACHED = 1024;
+	
+	/**
+	 * Shared instances for the values SMALLEST_CACHED to LARGEST_CACHED
+	 */
+	private static final BigInteger[] CACHED_VALUES = new BigInteger[LARGEST_CACHED - SMALLEST_CACHED + 1];
+	static {
+		for (int i = 0; i < CACHED_VALUES.length; i++) {
+			CACHED_VALUES[i] = fromLong(SMALLEST_CACHED + i);
+		}
+	}
+	
+	/**
+	 * The integers 0, 1 and 10
+	 */
+	public static final BigInteger ZERO = valueOf(0);
+	public static final BigInteger ONE = valueOf(1);
+	public static final BigInteger TEN = valueOf(10);
+	
+	/**
+	 * Operand size, in decimal digits, from which multiply switches from the schoolbook
+	 * method to Karatsuba. Both operands must be at least this long.
 	 */
-	DigitNode front;
+	public static int karatsubaThreshold = 720;
+	
+	/**
+	 * Operand size, in decimal digits, from which multiply switches from Karatsuba to
+	 * Toom-Cook 3-way. Both operands must be at least this long.
+	 */
+	public static int toomCookThreshold = 2160;
+	
+	/**
+	 * Operand size, in decimal digits, from which multiply switches from Toom-Cook to a
+	 * number theoretic transform. Both operands must be at least this long.
+	 */
+	public static int nttThreshold = 100000;
+	
+	/**
+	 * Operand size, in decimal digits, from which multiply splits its work across the
+	 * common fork-join pool. Smaller products are done on the calling thread.
+	 */
+	public static int parallelThreshold = 20000;
+	
+	/**
+	 * Divisor size, in decimal digits, from which division switches from Knuth's
+	 * algorithm D to the recursive Burnikel-Ziegler method.
+	 */
+	public static int burnikelZieglerThreshold = 720;
 	
 	/**
 	 * Initializes this integer to a positive number with zero digits, in other
@@ -36,7 +145,22 @@ public class BigInteger {
 	public BigInteger() {
 		negative = false;
 		numDigits = 0;
-		front = null;
+		limbs = NO_LIMBS;
+		compact = 0;
+	}
+	
+	/**
+	 * Returns a BigInteger with the value of a long. Common small values share a
+	 * cached instance.
+	 * 
+	 * @param value Value of the integer
+	 * @return BigInteger instance that stores the value
+	 */
+	public static BigInteger valueOf(long value) {
+		if (value >= SMALLEST_CACHED && value <= LARGEST_CACHED) {
+			return CACHED_VALUES[(int) value - SMALLEST_CACHED];
+		}
+		return fromLong(value);
 	}
 	
 	/**
@@ -63,7 +187,7 @@ public class BigInteger {
 	 * Spaces between digits are not ignored. So "12  345" will not parse as
 	 * an integer - the input is incorrectly formatted.
 	 * 
-	 * An integer with value 0 will correspond to a null (empty) list - see the BigInteger
+	 * An integer with value 0 will correspond to an empty limb array - see the BigInteger
 	 * constructor
 	 * 
 	 * @param integer Integer string that is to be parsed
@@ -72,128 +196,72 @@ public class BigInteger {
 	 */
 	public static BigInteger parse(String integer)
 	throws IllegalArgumentException {
-		
-		//Create BigInteger Instance
-		BigInteger answer = new BigInteger();
-		
-		//Remove leading and trailing spaces
-		integer = integer.trim();
-		
-        //Takes care of input if length is zero
-        if (integer.length() == 0) {
-            throw new IllegalArgumentException("Incorrect Formula");
-        }
-        
-        //This takes care of inputs of length 1 
-        if (Character.isDigit(integer.charAt(0)) == false && integer.length() == 1) {
-            throw new IllegalArgumentException("Incorrect Formula");
-        }
-        
-		//Make sure the input does not contain letters or symbols 
-		for (int i = 0; i < integer.length(); i++) {
-            char c = integer.charAt(i);
-			if (c != '+' && c != '-' && Character.isDigit(c) == false) {
-				throw new IllegalArgumentException("Incorrect Format");
-			}
+		return parse(integer, 0, integer.length());
+	}
+	
+	/**
+	 * Parses the integer in the characters text[from..to) into a corresponding BigInteger
+	 * instance, with the same format rules as parse(String). This lets an integer be parsed
+	 * straight out of a larger buffer, without copying it into a String first.
+	 * 
+	 * The input is read in a single pass: the sign is checked, leading zeros are skipped,
+	 * and every remaining digit is validated as it is packed into its limb.
+	 * 
+	 * @param text Characters holding the integer
+	 * @param from Index of the first character of the integer
+	 * @param to Index just past the last character of the integer
+	 * @return BigInteger instance that stores the input integer.
+	 * @throws IllegalArgumentException If input is incorrectly formatted
+	 * @throws IndexOutOfBoundsException If from and to are not a valid range of text
+	 */
+	public static BigInteger parse(CharSequence text, int from, int to)
+	throws IllegalArgumentException {
+		if (from < 0 || to > text.length() || from > to) {
+			throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + text.length());
 		}
 		
-		//Takes care of extra plus and minus signs
-		int plusCount = 0;
-		int minusCount = 0;
-		    
-		for (int i = 0; i < integer.length(); i++) {
-            char c = integer.charAt(i);
-            
-            if (c == '+') {
-                plusCount++;
-            }
-            else if (c == '-') {
-                minusCount++;
-            }
+		//Ignore leading and trailing spaces
+		while (from < to && text.charAt(from) <= ' ') {
+			from++;
 		}
-		
-		if (plusCount > 1 || minusCount > 1 || plusCount > 0 && minusCount > 0) {
-		    throw new IllegalArgumentException("Incorrect Format");
+		while (to > from && text.charAt(to - 1) <= ' ') {
+			to--;
 		}
 		
-		//Makes sure that plus or minus sign is at front
-		if (integer.indexOf('-') > 0) {
-			throw new IllegalArgumentException("Incorrect Format");
+		//Optional sign, which must be followed by at least one digit
+		boolean negative = false;
+		if (from < to && (text.charAt(from) == '+' || text.charAt(from) == '-')) {
+			negative = text.charAt(from) == '-';
+			from++;
 		}
-		if (integer.indexOf('+') > 0) {
+		if (from == to) {
 			throw new IllegalArgumentException("Incorrect Format");
 		}
 		
-		//This takes care of all inputs of zeros
-        int numOfZeros = 0; 
-        
-        for (int i = 0; i < integer.length(); i++) {
-            char c = integer.charAt(i);
-            
-            if (c == '0') {
-                numOfZeros++;
-            }
-        }
-        if (numOfZeros == integer.length() || numOfZeros == integer.length() -1) {
-            int numCount = 0; 
-            for (int i = 0; i < integer.length(); i++) {
-                char c = integer.charAt(i);
-                if (Character.isDigit(c) == true && (c - '0') > 0) {
-                    numCount++;
-                }
-            }
-            if (numCount >= 1) {
-                
-            } else {
-                
-                integer = "0";
-            }
-        }
-		
-		//Takes care of extra zeros
-		String digitsAllowed = "123456789";
-		int firstDigitIndex = 0; 
-		for (int i = 0; i < integer.length(); i++) {
-		    char c = integer.charAt(i);
-		    
-		    if (digitsAllowed.indexOf(c) >= 0) {
-		        firstDigitIndex = i;
-		        break;
-		    }
-		}
-		String extraZeros = integer.substring(0,firstDigitIndex);
-		extraZeros = extraZeros.replaceAll("0","");
-		integer = integer.substring(firstDigitIndex);
-		
-		//Takes care of the remaining plus sign
-		if (extraZeros.length() != 0) {
-			if (extraZeros.charAt(0) == '-') {
-				answer.negative = true;
-			}
-		}
-		
-		//Set the number of digits in the integer
-		answer.numDigits = integer.length();
-		
-		
-		//Put single digit into a linked list
-		int number = 0; 
-		if (integer.length() == 1) {
-			number = integer.charAt(0) - '0';
-			answer.front = new DigitNode(number,answer.front);
-			System.out.println(answer.negative + " ff");
-			System.out.println(answer.numDigits + " ff");
-			return answer;
+		//Leading zeros are insignificant
+		while (from < to && text.charAt(from) == '0') {
+			from++;
 		}
 		
-		//Put digit into a linked list
-		for (int i = 0; i < integer.length(); i++) {
-			number = integer.charAt(i) - '0';
-			answer.front = new DigitNode(number,answer.front);
+		//Validate and pack the remaining digits, most significant first. The most significant
+		//limb gets the digits left over after filling all the others with nine digits each.
+		int[] limbs = new int[(to - from + BASE_DIGITS - 1) / BASE_DIGITS];
+		int limbIndex = limbs.length - 1;
+		int digitsLeft = (to - from) - limbIndex * BASE_DIGITS;
+		int limb = 0;
+		for (int i = from; i < to; i++) {
+			int digit = text.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				throw new IllegalArgumentException("Incorrect Format");
+			}
+			limb = limb * 10 + digit;
+			if (--digitsLeft == 0) {
+				limbs[limbIndex--] = limb;
+				limb = 0;
+				digitsLeft = BASE_DIGITS;
+			}
 		}
-		System.out.println(answer.negative + " gg");
-		System.out.println(answer.numDigits + " gg");
-		return answer;
+		return new BigInteger(negative, limbs);
 	}
 	
 	/**
@@ -208,195 +276,21 @@ public class BigInteger {
 	 * @return Result big integer
 	 */
 	public static BigInteger add(BigInteger first, BigInteger second) {
-		
-		//Create BigInteger Instance
-		BigInteger answer = new BigInteger();
-		
-		//Create a new BigInteger Instance, these will be pointers
-		BigInteger pointerFirst = first; 
-		BigInteger pointerSecond = second;
-		first.print("First: ");
-		second.print("Second: ");
-		
-		//We are going to add the integers if they have the same sign (+,+ and -,-)
-		if (first.negative == second.negative) {
-			
-			//First check to see if negative is true or false, then set appropriately
-			if (first.negative == true ) {
-				answer.negative = true;
-			}
-			
-			//Match the number of digits 
-			if (first.numDigits < second.numDigits) {
-				while (first.numDigits != second.numDigits) {
-					pointerFirst.addToEnd(0);
-					pointerFirst.numDigits++;
-				}
-			}
-			else {
-				while (first.numDigits != second.numDigits) {
-					pointerSecond.addToEnd(0);
-					pointerSecond.numDigits++;
-				}
-			}
-			
-			//If number of digits is the same then we add
-			if (first.numDigits == second.numDigits) {
-			
-				int sumOfDigits = 0; 
-				int carry = 0;
-				
-				//Adding begins here
-				while (pointerFirst.front != null && pointerSecond.front != null) {
-					sumOfDigits = pointerFirst.front.digit + pointerSecond.front.digit + carry;
-					
-					if (sumOfDigits > 9) {
-						carry = 1;
-						sumOfDigits = sumOfDigits % 10;
-						
-						//when first linking a node to front of the answer instances
-						if (answer.front == null) {
-							answer.front = new DigitNode(sumOfDigits, null);
-						} 
-						else { //front from the answer instance is already pointing to a node
-							answer.addToEnd(sumOfDigits);
-						}
-					}
-					else {
-						carry = 0;
-						
-						//when first linking a node to front of the answer instances
-						if (answer.front == null) {
-							answer.front = new DigitNode(sumOfDigits, null);
-						}
-						else { //front from the answer instance is already pointing to a node
-							answer.addToEnd(sumOfDigits);
-						}
-					}
-					//allows to traverse through the linked list 
-					pointerFirst.front = pointerFirst.front.next;
-					pointerSecond.front = pointerSecond.front.next;
-				}
-				if (carry == 1) {
-					answer.addToEnd(1);
-				}
-			}
-				
-		}//end of on line 216
-		
-		//add when one number is negative 
-		if (first.negative != second.negative) {			
-			
-			//match the numbers to same length
-			if (first.numDigits < second.numDigits) {
-				while (first.numDigits != second.numDigits) {
-					pointerFirst.addToEnd(0);
-					pointerFirst.numDigits++;
-				}
-			}
-			else {
-				while (first.numDigits != second.numDigits) {
-					pointerSecond.addToEnd(0);
-					pointerSecond.numDigits++;
-				}
-			}
-			
-			//find out which number is greater
-			if (pointerFirst.greater(pointerSecond) == true) {
-				
-				//check to see if pointerFirst is negative or not, if so, apply changes
-				if (pointerFirst.negative == true) {
-					answer.negative = true;
-				}
-				
-				//subtract appropriately
-				int sumOfDigits = 0;
-				
-				while (pointerFirst.front != null && pointerSecond.front != null) {
-					sumOfDigits = pointerFirst.front.digit - pointerSecond.front.digit;
-					
-					if (sumOfDigits < 0) { 
-						pointerFirst.front.digit = pointerFirst.front.digit + 10; 
-						sumOfDigits = pointerFirst.front.digit - pointerSecond.front.digit;
-						pointerFirst.front.next.digit = pointerFirst.front.next.digit - 1;
-						
-						//when first linking a node to front of the answer instances
-						if (answer.front == null) {
-							answer.front = new DigitNode(sumOfDigits, null);
-						}
-						else { //front from the answer instance is already pointing to a node
-							answer.addToEnd(sumOfDigits);
-						}
-					}
-					else {
-						if (answer.front == null) {
-							answer.front = new DigitNode(sumOfDigits, null);
-						}
-						else { //front from the answer instance is already is already pointing to a node
-							answer.addToEnd(sumOfDigits);
-						}
-					}
-					
-					//allows to traverse through the linked list
-					pointerFirst.front = pointerFirst.front.next;
-					pointerSecond.front = pointerSecond.front.next;
-					
-				}//end while loop
-			}
-			else {//second is bigger 
-				
-				if (pointerSecond.negative == true) {
-					answer.negative = true; 
-				}
-				
-				//subtract appropriately
-				int sumOfDigits = 0;
-				
-				while (pointerSecond.front != null && pointerFirst != null) {
-					sumOfDigits = pointerSecond.front.digit - pointerFirst.front.digit;
-					
-					if (sumOfDigits < 0) {
-						pointerSecond.front.digit = pointerSecond.front.digit + 10; 
-						sumOfDigits = pointerSecond.front.digit - pointerFirst.front.digit; 
-						pointerSecond.front.next.digit = pointerSecond.front.next.digit - 1; 
-						
-						//when first linking a node to front of the answer instances
-						if (answer.front == null) {
-							answer.front = new DigitNode(sumOfDigits, null);
-						}
-						else { //front from the answer instance is already pointing to a node
-							answer.addToEnd(sumOfDigits);
-						}
-					}
-					else {
-						if (answer.front == null) {
-							answer.front = new DigitNode(sumOfDigits, null);
-						}
-						else { //front from the answer instance is already is already pointing to a node
-							answer.addToEnd(sumOfDigits);
-						}
-					}
-					
-					//allows to traverse through the linked list
-					pointerSecond.front = pointerSecond.front.next;
-					pointerFirst.front = pointerFirst.front.next;
-					
-				}//end while loop
-			}
-		}
+		return addSigned(first, second.negative, second);
+	}
 	
-		//check if there are zeros at the end of the linked list
-		if (answer.checkZeros(answer.front) == true) { 
-			answer.reverseLL(); 
-			answer.reverseAfterModified();
-		}
-		
-		
-		//set numDigits to length of answer
-		answer.fillNumOfDigits();
-		System.out.println(answer.negative);
-		System.out.println("num: " + answer.numDigits);
-		return answer; 
+	/**
+	 * Subtracts the second big integer from the first, and returns the result in a NEW
+	 * BigInteger object. DOES NOT MODIFY the input big integers.
+	 * 
+	 * NOTE that either or both of the input big integers could be negative.
+	 * 
+	 * @param first First big integer
+	 * @param second Second big integer
+	 * @return Result big integer
+	 */
+	public static BigInteger subtract(BigInteger first, BigInteger second) {
+		return addSigned(first, !second.negative, second);
 	}
 	
 	/**
@@ -411,397 +305,573 @@ public class BigInteger {
 	 */
 	public static BigInteger multiply(BigInteger first, BigInteger second) {
 		
-		//Create BigInteger Instance
-		BigInteger answer = new BigInteger();
-		
-		////Create a new BigInteger Instance, these will be pointers
-		BigInteger pointerFirst = new BigInteger(); 
-		BigInteger pointerSecond = new BigInteger();
-		
-		pointerFirst.addToFront(first.front.digit, first.front.next);
-		pointerSecond.addToFront(second.front.digit, second.front.next);
-		
-		pointerFirst.numDigits = first.numDigits;
-		pointerSecond.numDigits = second.numDigits;
-		
-		
-		//Create a new BigInteger Instance to hold current
-		BigInteger current = new BigInteger();
-		
-		//Create a new BigInteger Instance to hold total
-		BigInteger total = new BigInteger();
-		total.front = new DigitNode(0, null);
-		
-		//We are going to multiply the integers if they have the same sign (+,+ and -,-)
-		if (first.negative == second.negative) {
-			
-			//First check to see if negative is true or false, then set appropriately
-			if (first.negative == true) {
-				answer.negative = true;
+		//Both fit in a long: multiply them as longs, unless the product overflows
+		if (first.compact != INFLATED && second.compact != INFLATED) {
+			long x = first.compact;
+			long y = second.compact;
+			long product = x * y;
+			if (((Math.abs(x) | Math.abs(y)) >>> 31 == 0) || (y == 0 || product / y == x)) {
+				return valueOf(product);
 			}
+		}
+		if (first.magnitude().length == 0 || second.magnitude().length == 0) {
+			return ZERO;
+		}
+		return new BigInteger(first.negative != second.negative, Multiplication.multiply(first.magnitude(), second.magnitude()));
+	}
+	
+	/**
+	 * Divides the first big integer by the second, and returns the quotient and the remainder
+	 * in NEW BigInteger objects. The quotient is rounded toward zero, so the remainder has
+	 * the sign of the first big integer (or is zero).
+	 * 
+	 * This method DOES NOT MODIFY either of the input big integers
+	 * 
+	 * @param first Dividend
+	 * @param second Divisor
+	 * @return Array holding the quotient and the remainder, in that order
+	 * @throws ArithmeticException If the divisor is zero
+	 */
+	public static BigInteger[] divideAndRemainder(BigInteger first, BigInteger second)
+	throws ArithmeticException {
+		if (second.magnitude().length == 0) {
+			throw new ArithmeticException("Division by zero");
+		}
+		int[][] qr = Division.divide(first.magnitude(), second.magnitude());
+		return new BigInteger[] {
+			new BigInteger(first.negative != second.negative, qr[0]),
+			new BigInteger(first.negative, qr[1])
+		};
+	}
+	
+	/**
+	 * Returns the quotient of the first big integer divided by the second, rounded toward zero.
+	 * 
+	 * This method DOES NOT MODIFY either of the input big integers
+	 * 
+	 * @param first Dividend
+	 * @param second Divisor
+	 * @return A new BigInteger which is the quotient
+	 * @throws ArithmeticException If the divisor is zero
+	 */
+	public static BigInteger divide(BigInteger first, BigInteger second)
+	throws ArithmeticException {
+		return divideAndRemainder(first, second)[0];
+	}
+	
+	/**
+	 * Returns the first big integer modulo a positive modulus. Unlike the remainder of
+	 * divideAndRemainder, the result is never negative.
+	 * 
+	 * This method DOES NOT MODIFY either of the input big integers
+	 * 
+	 * @param first Big integer to reduce
+	 * @param modulus Modulus, greater than zero
+	 * @return A new BigInteger in the range [0, modulus)
+	 * @throws ArithmeticException If the modulus is not positive
+	 */
+	public static BigInteger mod(BigInteger first, BigInteger modulus)
+	throws ArithmeticException {
+		if (modulus.negative || modulus.magnitude().length == 0) {
+			throw new ArithmeticException("Modulus not positive");
+		}
+		int[] remainder = Division.divide(first.magnitude(), modulus.magnitude())[1];
+		if (first.negative && remainder.length != 0) {
+			remainder = subtractLimbs(modulus.magnitude(), remainder);
+		}
+		return new BigInteger(false, remainder);
+	}
+	
+	/**
+	 * Returns the big integer raised to a non-negative power.
+	 * 
+	 * This method DOES NOT MODIFY the input big integer
+	 * 
+	 * @param base Base
+	 * @param exponent Exponent, zero or more
+	 * @return A new BigInteger which is base^exponent
+	 * @throws ArithmeticException If the exponent is negative
+	 */
+	public static BigInteger pow(BigInteger base, int exponent)
+	throws ArithmeticException {
+		if (exponent < 0) {
+			throw new ArithmeticException("Negative exponent");
+		}
+		return new BigInteger(base.negative && (exponent & 1) == 1, ModularArithmetic.pow(base.magnitude(), exponent));
+	}
+	
+	/**
+	 * Returns the big integer raised to a non-negative power, modulo a positive modulus.
+	 * 
+	 * This method DOES NOT MODIFY any of the input big integers
+	 * 
+	 * @param base Base
+	 * @param exponent Exponent, zero or more
+	 * @param modulus Modulus, greater than zero
+	 * @return A new BigInteger in the range [0, modulus) which is base^exponent mod modulus
+	 * @throws ArithmeticException If the exponent is negative or the modulus is not positive
+	 */
+	public static BigInteger modPow(BigInteger base, BigInteger exponent, BigInteger modulus)
+	throws ArithmeticException {
+		if (exponent.negative) {
+			throw new ArithmeticException("Negative exponent");
+		}
+		BigInteger reduced = mod(base, modulus);
+		if (modulus.magnitude().length == 1 && modulus.magnitude()[0] == 1) {
+			return ZERO;
+		}
+		return new BigInteger(false, ModularArithmetic.modPow(reduced.magnitude(), exponent.magnitude(), modulus.magnitude()));
+	}
+	
+	/**
+	 * Returns the greatest common divisor of the absolute values of two big integers.
+	 * 
+	 * This method DOES NOT MODIFY either of the input big integers
+	 * 
+	 * @param first First big integer
+	 * @param second Second big integer
+	 * @return A new, non-negative BigInteger which is zero only if both inputs are zero
+	 */
+	public static BigInteger gcd(BigInteger first, BigInteger second) {
+		return new BigInteger(false, ModularArithmetic.gcd(first.magnitude(), second.magnitude()));
+	}
+	
+	/**
+	 * Returns the product of the consecutive integers from..to, both included, and 1 if
+	 * the range is empty. The factors are multiplied as a balanced product tree, with
+	 * large subtrees multiplied in parallel on the common fork-join pool.
+	 * 
+	 * @param from First factor
+	 * @param to Last factor
+	 * @return A new BigInteger which is from * (from + 1) * ... * to
+	 */
+	public static BigInteger productOf(long from, long to) {
+		if (from > to) {
+			return ONE;
+		}
+		if (from <= 0 && to >= 0) {
+			return ZERO;
+		}
+		if (to < 0) {
 			
-			//Match the numbers to same length
-			if (first.numDigits < second.numDigits) {
-				while (pointerFirst.numDigits != pointerSecond.numDigits) {
-					pointerFirst.addToEnd(0);
-					pointerFirst.numDigits++;
-				}
+			//-Long.MIN_VALUE does not fit in a long, so that factor is taken out first
+			if (from == Long.MIN_VALUE) {
+				return multiply(productOf(from + 1, to), valueOf(from));
 			}
-			else {
-				while (pointerFirst.numDigits != pointerSecond.numDigits) {
-					pointerSecond.addToEnd(0);
-					pointerSecond.numDigits++;
+			boolean negative = ((to - from) & 1) == 0;
+			return new BigInteger(negative, ProductTree.product(-to, -from));
+		}
+		return new BigInteger(false, ProductTree.product(from, to));
+	}
+	
+	/**
+	 * Multiplies any number of big integers as a balanced product tree, like productOf.
+	 * 
+	 * This method DOES NOT MODIFY any of the input big integers
+	 * 
+	 * @param values Big integers to multiply, any of which could be negative
+	 * @return Result big integer, one if there are no values
+	 */
+	public static BigInteger product(BigInteger... values) {
+		boolean negative = false;
+		for (BigInteger value : values) {
+			if (value.magnitude().length == 0) {
+				return ZERO;
+			}
+			negative ^= value.negative;
+		}
+		return new BigInteger(negative, ProductTree.product(values, 0, values.length));
+	}
+	
+	/**
+	 * Returns n!, the product of the integers 1..n.
+	 * 
+	 * @param n Non-negative integer
+	 * @return A new BigInteger which is n!
+	 * @throws ArithmeticException If n is negative
+	 */
+	public static BigInteger factorial(int n)
+	throws ArithmeticException {
+		if (n < 0) {
+			throw new ArithmeticException("Negative factorial");
+		}
+		return productOf(2, n);
+	}
+	
+	/**
+	 * Returns the binomial coefficient n choose k, i.e. n! / (k! (n - k)!), which is zero
+	 * when k is negative or greater than n. It is computed as the product of the top k
+	 * factors of n! divided by k!, with the smaller of k and n - k.
+	 * 
+	 * @param n Non-negative integer
+	 * @param k Number of items chosen
+	 * @return A new BigInteger which is n choose k
+	 * @throws ArithmeticException If n is negative
+	 */
+	public static BigInteger binomial(int n, int k)
+	throws ArithmeticException {
+		if (n < 0) {
+			throw new ArithmeticException("Negative binomial");
+		}
+		if (k < 0 || k > n) {
+			return ZERO;
+		}
+		k = Math.min(k, n - k);
+		return divide(productOf(n - k + 1, n), factorial(k));
+	}
+	
+	/**
+	 * Adds up any number of big integers, and returns the total in a NEW BigInteger object.
+	 * Limbs are accumulated column by column and carries are resolved once at the end,
+	 * which is much faster than adding the values one at a time.
+	 * 
+	 * This method DOES NOT MODIFY any of the input big integers
+	 * 
+	 * @param values Big integers to add, any of which could be negative
+	 * @return Result big integer, zero if there are no values
+	 */
+	public static BigInteger sum(BigInteger... values) {
+		Summation sum = new Summation();
+		for (BigInteger value : values) {
+			sum.add(value);
+		}
+		return sum.total();
+	}
+	
+	/**
+	 * Adds up any number of big integers, like sum(BigInteger...).
+	 * 
+	 * @param values Big integers to add, any of which could be negative
+	 * @return Result big integer, zero if there are no values
+	 */
+	public static BigInteger sum(Iterable<BigInteger> values) {
+		Summation sum = new Summation();
+		for (BigInteger value : values) {
+			sum.add(value);
+		}
+		return sum.total();
+	}
+	
+	/**
+	 * Adds up any number of big integers like sum(BigInteger...), splitting large arrays
+	 * into blocks that are summed in parallel on the common fork-join pool.
+	 * 
+	 * @param values Big integers to add, any of which could be negative
+	 * @return Result big integer, zero if there are no values
+	 */
+	public static BigInteger parallelSum(BigInteger[] values) {
+		return new Summation.Task(values, 0, values.length).invoke();
+	}
+	
+	/**
+	 * Returns this integer in its linked list form, one DigitNode per decimal digit with
+	 * the Least Significant Digit in the FIRST node. The zero valued integer gives null.
+	 * 
+	 * The list is built fresh on every call, so callers are free to modify it.
+	 * 
+	 * @return Front of the digit list, or null if this integer is zero
+	 */
+	public DigitNode toDigitList() {
+		return toDigitList(null);
+	}
+	
+	/**
+	 * Returns this integer in its linked list form like toDigitList(), taking the nodes
+	 * from a pool. Once the list is no longer needed, it can be given back with
+	 * pool.release(), so that converting many integers allocates no new nodes.
+	 * 
+	 * @param pool Pool to take the nodes from, or null to allocate new ones
+	 * @return Front of the digit list, or null if this integer is zero
+	 */
+	public DigitNode toDigitList(DigitNodePool pool) {
+		int[] limbs = magnitude();
+		DigitNode front = null;
+		DigitNode tail = null;
+		
+		//Walk the limbs from the least significant end, appending each digit at the tail
+		for (int i = 0; i < limbs.length; i++) {
+			int limb = limbs[i];
+			int digitsInLimb = (i == limbs.length - 1) ? digitsIn(limb) : BASE_DIGITS;
+			for (int d = 0; d < digitsInLimb; d++) {
+				DigitNode node = pool == null ? new DigitNode(limb % 10, null) : pool.allocate(limb % 10, null);
+				if (tail == null) {
+					front = node;
+				}
+				else {
+					tail.next = node;
 				}
+				tail = node;
+				limb /= 10;
 			}
-			
-			//If number of digits is the same then we multiply
-			if (pointerFirst.numDigits == pointerSecond.numDigits) {
-				int sumOfDigits = 0;
-				int carry = 0;
-				int numOfTimesWeMult = 0;
-				
-				while (pointerSecond.front != null) {
-					
-					
-					
-					
-					pointerFirst.addToFront(first.front.digit, first.front.next);
-					
-					//calculates one round
-					while (pointerFirst.front != null) {
-
-						
-						
-						sumOfDigits = (pointerFirst.front.digit * pointerSecond.front.digit) + carry;
-						
-						
-						if (sumOfDigits > 9) { 
-							carry = sumOfDigits / 10; 
-							sumOfDigits = sumOfDigits % 10; 
-							
-							if (current.front == null) {
-								current.front = new DigitNode(sumOfDigits, null);
-								current.numDigits++;
-							}
-							else {
-								current.addToEnd(sumOfDigits);
-								current.numDigits++;
-							}
-						}
-						else {
-							carry = 0;
-							
-							//when first linking a node to front of the answer instances
-							if (current.front == null) {
-								current.front = new DigitNode(sumOfDigits, null); 
-								current.numDigits++;
-							}
-							else { //front from the answer instance is already pointing to a node
-								current.addToEnd(sumOfDigits); 
-								current.numDigits++;
-							}
-						}
-						
-						//allows to traverse through the linked list
-						pointerFirst.front = pointerFirst.front.next;
-						
-					}//end while loop
-					
-					if (carry < 10 && carry > 0) {
-						current.addToEnd(carry); 
-						carry = 0;
-						current.numDigits++;
-					}
-					
-					
-					
-					total = BigInteger.add(total,current); //doesnt work here
-					
-				
-					
-					numOfTimesWeMult++;
-					
-					current.numDigits = 0;
-					
-					//check how many times we multiplied
-					for (int i = 0; i < numOfTimesWeMult; i++) {
-						if ( i == 0) {
-							current.front = new DigitNode(0, null);
-							current.numDigits++;
-						}
-						else {
-							current.addToEnd(0);
-							current.numDigits++;
-						}
-					}
-					
-					
-					pointerSecond.front = pointerSecond.front.next;
-					
-					if(pointerSecond.front != null) {
-					
-					
-					
-					}
-					
-				}//end while loop
+		}
+		return front;
+	}
+	
+//----------Package Helper Methods----------//
+	
+	/**
+	 * Adds the first big integer and the magnitude of the second one, taken with the
+	 * given sign. Both magnitudes are read in a single pass and only the result is
+	 * allocated.
+	 * 
+	 * @param first First big integer
+	 * @param secondNegative Sign to use for the second big integer
+	 * @param second Second big integer, of which only the magnitude is used
+	 * @return Result big integer
+	 */
+	static BigInteger addSigned(BigInteger first, boolean secondNegative, BigInteger second) {
+		
+		//Both fit in a long: add them as longs, unless the sum overflows
+		if (first.compact != INFLATED && second.compact != INFLATED) {
+			long x = first.compact;
+			long y = secondNegative == second.negative ? second.compact : -second.compact;
+			long sum = x + y;
+			if (((x ^ sum) & (y ^ sum)) >= 0) {
+				return valueOf(sum);
 			}
 		}
 		
-		//We are going to multiply the integers if they have the same sign (+,+ and -,-)
-				if (first.negative != second.negative) {
-					
-					answer.negative = true;
-					
-					//Match the numbers to same length
-					if (first.numDigits < second.numDigits) {
-						while (pointerFirst.numDigits != pointerSecond.numDigits) {
-							pointerFirst.addToEnd(0);
-							pointerFirst.numDigits++;
-						}
-					}
-					else {
-						while (pointerFirst.numDigits != pointerSecond.numDigits) {
-							pointerSecond.addToEnd(0);
-							pointerSecond.numDigits++;
-						}
-					}
-					
-					//If number of digits is the same then we multiply
-					if (pointerFirst.numDigits == pointerSecond.numDigits) {
-						int sumOfDigits = 0;
-						int carry = 0;
-						int numOfTimesWeMult = 0;
-						
-						while (pointerSecond.front != null) {
-							
-							
-							current.print("Starting Current: ");
-							
-							pointerFirst.addToFront(first.front.digit, first.front.next);
-							
-							//calculates one round
-							while (pointerFirst.front != null) {
-
-								
-								
-								sumOfDigits = (pointerFirst.front.digit * pointerSecond.front.digit) + carry;
-								
-								
-								if (sumOfDigits > 9) { 
-									carry = sumOfDigits / 10; 
-									sumOfDigits = sumOfDigits % 10; 
-									
-									if (current.front == null) {
-										current.front = new DigitNode(sumOfDigits, null);
-										current.numDigits++;
-									}
-									else {
-										current.addToEnd(sumOfDigits);
-										current.numDigits++;
-									}
-								}
-								else {
-									carry = 0;
-									
-									//when first linking a node to front of the answer instances
-									if (current.front == null) {
-										current.front = new DigitNode(sumOfDigits, null); 
-										current.numDigits++;
-									}
-									else { //front from the answer instance is already pointing to a node
-										current.addToEnd(sumOfDigits); 
-										current.numDigits++;
-									}
-								}
-								
-								//allows to traverse through the linked list
-								pointerFirst.front = pointerFirst.front.next;
-								
-							}//end while loop
-							
-							if (carry < 10 && carry > 0) {
-								current.addToEnd(carry); 
-								carry = 0;
-								current.numDigits++;
-							}
-							
-						
-							
-							total = BigInteger.add(total,current); //doesnt work here
-							
-							
-							
-							numOfTimesWeMult++;
-							
-							current.numDigits = 0;
-							
-							//check how many times we multiplied
-							for (int i = 0; i < numOfTimesWeMult; i++) {
-								if ( i == 0) {
-									current.front = new DigitNode(0, null);
-									current.numDigits++;
-								}
-								else {
-									current.addToEnd(0);
-									current.numDigits++;
-								}
-							}
-							
-							pointerSecond.front = pointerSecond.front.next;
-							
-							if(pointerSecond.front != null) {
-							
-							}
-							
-						}//end while loop
-					}
-				}
-		
-		System.out.println(answer.negative + " gg");
-		System.out.println(answer.numDigits + " gg");
-		answer = total;
-		return answer; 
+		//Same sign (+,+ and -,-): add the magnitudes and keep the sign
+		if (first.negative == secondNegative) {
+			return new BigInteger(first.negative, addLimbs(first.magnitude(), second.magnitude()));
+		}
 		
+		//Different signs: subtract the smaller magnitude from the larger one
+		int comparison = compareLimbs(first.magnitude(), second.magnitude());
+		if (comparison == 0) {
+			return ZERO;
+		}
+		if (comparison > 0) {
+			return new BigInteger(first.negative, subtractLimbs(first.magnitude(), second.magnitude()));
+		}
+		return new BigInteger(secondNegative, subtractLimbs(second.magnitude(), first.magnitude()));
 	}
 	
-	//this method will set answer to the correct numOfDigits
-	private void fillNumOfDigits() {
-		DigitNode ptr = front;
-		
-		while (ptr != null) {
-			
-			numDigits++;
-			ptr = ptr.next;
+	/**
+	 * Initializes this integer with a sign and a magnitude, dropping any insignificant
+	 * limbs. The array is kept, not copied, when it has no insignificant limbs.
+	 * 
+	 * @param negative True if the integer is negative
+	 * @param limbs Magnitude, least significant limb first
+	 */
+	BigInteger(boolean negative, int[] limbs) {
+		int length = significantLength(limbs, limbs.length);
+		if (length != limbs.length) {
+			limbs = Arrays.copyOf(limbs, length);
 		}
+		limbs = length == 0 ? NO_LIMBS : limbs;
+		this.limbs = limbs;
+		this.negative = negative && length != 0;
+		this.numDigits = countDigits(limbs);
+		this.compact = compactValue(this.negative, limbs);
 	}
 	
-	//This method will check if there are zeros at the end of the linked list
-	private boolean checkZeros(DigitNode node) {
-		DigitNode ptr = node; 
-		DigitNode prev = null;
-		
-		while (ptr != null) {
-			prev = ptr;
-			ptr = ptr.next;
+	//This constructor takes a magnitude without insignificant limbs, or null for a compact value, with its digit count known
+	private BigInteger(boolean negative, int[] limbs, int numDigits, long compact) {
+		this.negative = negative;
+		if (limbs != null) {
+			this.limbs = limbs;
 		}
-		if (prev.digit == 0) {
-			return true;
+		this.numDigits = numDigits;
+		this.compact = compact;
+	}
+	
+	/**
+	 * Returns the magnitude of this integer as limbs, building them from the compact
+	 * value the first time for an integer that was made without them.
+	 * 
+	 * @return Magnitude, least significant limb first, which must not be modified
+	 */
+	int[] magnitude() {
+		int[] magnitude = limbs;
+		if (magnitude == null) {
+			magnitude = limbsOf(compact);
+			limbs = magnitude;
 		}
-		else {
-			return false;
+		return magnitude;
+	}
+	
+	//This method builds an integer from a long, without looking in the cache. Only the value is kept, not limbs.
+	private static BigInteger fromLong(long value) {
+		if (value == 0) {
+			return new BigInteger();
 		}
 		
+		//Long.MIN_VALUE is INFLATED, as its magnitude does not fit in a long either, so it needs its limbs
+		int[] limbs = value == INFLATED ? limbsOf(value) : null;
+		return new BigInteger(value < 0, limbs, countDigits(value), value);
 	}
 	
-	//this method will reverse and take out zeros. ex; 3>2>0>0>1>0>0 --> 1>0>0>2>3
-	private void reverseLL() {
-		DigitNode ptr = front;
-		DigitNode copy = front;
-		DigitNode reverseLL = null;
-		
-		//reverse LinkedList
-		while (ptr != null) {
-			reverseLL = new DigitNode(ptr.digit, reverseLL);
-			ptr = ptr.next;
+	//This method returns the limbs of the magnitude of a long
+	private static int[] limbsOf(long value) {
+		
+		//Limbs are taken off the negative value, since -Long.MIN_VALUE does not fit in a long
+		long negativeValue = value < 0 ? value : -value;
+		int length = negativeValue == 0 ? 0 : negativeValue > -BASE ? 1 : negativeValue > -(long) BASE * BASE ? 2 : 3;
+		if (length == 0) {
+			return NO_LIMBS;
 		}
-		
-		//trim the zeros out 
-		while (copy != null) {
-			if (reverseLL.digit == 0) {
-				reverseLL = reverseLL.next;
+		int[] limbs = new int[length];
+		for (int i = 0; i < length; i++) {
+			limbs[i] = (int) -(negativeValue % BASE);
+			negativeValue /= BASE;
+		}
+		return limbs;
+	}
+	
+	//This method counts the decimal digits in a long that is not zero, from its bit length and one comparison
+	private static int countDigits(long value) {
+		if (value == Long.MIN_VALUE) {
+			return 19;
+		}
+		long magnitude = Math.abs(value);
+		int estimate = (64 - Long.numberOfLeadingZeros(magnitude)) * 1233 >>> 12;
+		return estimate + (magnitude >= LONG_POWERS_OF_TEN[estimate] ? 1 : 0);
+	}
+	
+	//This method returns the value of a magnitude with a sign as a long, or INFLATED if it does not fit
+	private static long compactValue(boolean negative, int[] limbs) {
+		if (limbs.length > 3) {
+			return INFLATED;
+		}
+		long value = 0;
+		for (int i = limbs.length - 1; i >= 0; i--) {
+			if (value > (Long.MAX_VALUE - limbs[i]) / BASE) {
+				return INFLATED;
 			}
-			copy = copy.next;
+			value = value * BASE + limbs[i];
 		}
-		front = reverseLL;
+		return negative ? -value : value;
 	}
 	
-	//this method reverses the linked list after reverse ex: 3>2>0>0>1
-	private void reverseAfterModified() {
-		DigitNode ptr = front;
-		DigitNode reversedLL = null;
-				
-		while(ptr != null) {
-			reversedLL = new DigitNode(ptr.digit, reversedLL);
-			ptr = ptr.next;
+	//This method returns the length of limbs[0..length) without its insignificant limbs
+	static int significantLength(int[] limbs, int length) {
+		while (length > 0 && limbs[length - 1] == 0) {
+			length--;
 		}
-		
-		front = reversedLL;
+		return length;
 	}
 	
-	//This method will see which integer is greater
-	private boolean greater(BigInteger other) {
-		DigitNode ptr = front;
-		DigitNode ptr2 = other.front;
-		boolean largest = false;
-		
-		while (ptr != null && ptr2 != null) {
-			if (ptr.digit == ptr2.digit) {
-				ptr = ptr.next;
-				ptr2 = ptr2.next;
-				continue;
+	//This method counts the decimal digits in a magnitude
+	static int countDigits(int[] limbs) {
+		if (limbs.length == 0) {
+			return 0;
+		}
+		return (limbs.length - 1) * BASE_DIGITS + digitsIn(limbs[limbs.length - 1]);
+	}
+	
+	//This method counts the decimal digits in a single limb value
+	static int digitsIn(int limb) {
+		int digits = 1;
+		while (digits < BASE_DIGITS && limb >= POWERS_OF_TEN[digits]) {
+			digits++;
+		}
+		return digits;
+	}
+	
+	//This method compares two magnitudes, returning a negative, zero or positive number
+	static int compareLimbs(int[] a, int[] b) {
+		if (a.length != b.length) {
+			return a.length < b.length ? -1 : 1;
+		}
+		for (int i = a.length - 1; i >= 0; i--) {
+			if (a[i] != b[i]) {
+				return a[i] < b[i] ? -1 : 1;
 			}
-			if (ptr.digit > ptr2.digit) {
-				largest = true;
+		}
+		return 0;
+	}
+	
+	//This method adds two magnitudes into an array of exactly the result's length
+	static int[] addLimbs(int[] a, int[] b) {
+		if (a.length < b.length) {
+			int[] swap = a;
+			a = b;
+			b = swap;
+		}
+		int[] result = new int[a.length + (carriesOut(a, b) ? 1 : 0)];
+		int carry = 0;
+		for (int i = 0; i < a.length; i++) {
+			int sum = a[i] + (i < b.length ? b[i] : 0) + carry;
+			if (sum >= BASE) {
+				sum -= BASE;
+				carry = 1;
 			}
-			
 			else {
-				largest = false;
+				carry = 0;
 			}
-			ptr = ptr.next;
-			ptr2 = ptr2.next;
+			result[i] = sum;
 		}
-		return largest; 
-	}
-	
-	private void addToFront(int data, DigitNode link)
-	{
-		front = new DigitNode(data, link);
+		if (carry == 1) {
+			result[a.length] = 1;
+		}
+		return result;
 	}
 	
-	//This method will make the numDigits between both numbers equal
-	private void addToEnd(int data) {
-		DigitNode ptr = front;
-		DigitNode prev = null;
-		
-			while(ptr != null) {
-				prev = ptr;
-				ptr = ptr.next;
+	//This method tells if adding magnitude b to the longer magnitude a carries into a new limb.
+	//Only the top limbs are looked at, until one of the limb sums decides it.
+	private static boolean carriesOut(int[] a, int[] b) {
+		for (int i = a.length - 1; i >= 0; i--) {
+			int sum = a[i] + (i < b.length ? b[i] : 0);
+			if (sum != BASE - 1) {
+				return sum >= BASE;
 			}
-			prev.next = new DigitNode(data, null);
-		
+		}
+		return false;
 	}
 	
-	//This method will print out the entries in the array
-	private void print(String s) {
-		DigitNode ptr = front;
-		
-		System.out.print(s);
-		
-		while (ptr != null) {
-			System.out.println(ptr.digit);
-			ptr = ptr.next;
+	//This method subtracts magnitude b from magnitude a, where a must be greater than b.
+	//Equal top limbs cancel out, so they are skipped before the result is allocated.
+	static int[] subtractLimbs(int[] a, int[] b) {
+		int top = a.length - 1;
+		while (top > 0 && top < b.length && a[top] == b[top]) {
+			top--;
 		}
-		System.out.println();
+		int[] result = new int[top + 1];
+		int borrow = 0;
+		for (int i = 0; i <= top; i++) {
+			int difference = a[i] - (i < b.length ? b[i] : 0) - borrow;
+			if (difference < 0) {
+				difference += BASE;
+				borrow = 1;
+			}
+			else {
+				borrow = 0;
+			}
+			result[i] = difference;
+		}
+		return result;
 	}
 	
-	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
 	public String toString() {
-		if (front == null) {
-			return "0";
+		if (compact != INFLATED) {
+			return Long.toString(compact);
 		}
-		String retval = front.digit + "";
-		for (DigitNode curr = front.next; curr != null; curr = curr.next) {
-				retval = curr.digit + retval;
+		int[] limbs = magnitude();
+		char[] retval = new char[numDigits + (negative ? 1 : 0)];
+		if (negative) {
+			retval[0] = '-';
 		}
 		
-		if (negative) {
-			retval = '-' + retval;
+		//Limbs map to fixed nine digit groups, so every limb is written straight into its slot
+		int end = retval.length;
+		for (int i = 0; i < limbs.length - 1; i++) {
+			writeDigits(limbs[i], BASE_DIGITS, retval, end);
+			end -= BASE_DIGITS;
+		}
+		writeDigits(limbs[limbs.length - 1], end - (negative ? 1 : 0), retval, end);
+		return new String(retval);
+	}
+	
+	//This method writes the lowest count decimal digits of a limb, zero padded, into out[end-count..end)
+	static void writeDigits(int limb, int count, char[] out, int end) {
+		for (int i = end - 1; i >= end - count; i--) {
+			out[i] = (char) ('0' + limb % 10);
+			limb /= 10;
 		}
-		return retval;
 	}
 	
 }
@@ -0,0 +1,413 @@
+package bigint;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * This class reads and writes BigIntegers as decimal text in chunks, so a number with
+ * millions of digits never has to be held as a String. While reading, peak memory stays
+ * close to the size of the limbs being built.
+ *
+ * The text format is the one accepted by BigInteger.parse: an optional sign and at least
+ * one digit, with leading and trailing spaces ignored. The whole input is one integer.
+ *
+ * Integers can also be written in a compact binary form, for checkpoints that have to be
+ * reloaded quickly. It is a big-endian int header holding the number of limbs, with the
+ * sign in the top bit, followed by the base 10^9 limbs as big-endian ints, least
+ * significant first. That takes 4 bytes for every 9 digits, and reading it back is a
+ * plain copy of the limbs with no conversion.
+ *
+ */
+public class BigIntegerIO {
+
+	/**
+	 * Size of the chunks that are read or written at a time
+	 */
+	private static final int CHUNK_SIZE = 8190;
+
+	/**
+	 * Bit of the binary header that marks a negative integer
+	 */
+	private static final int NEGATIVE_BIT = 0x80000000;
+
+	/**
+	 * Largest number of limbs in a binary header, that of an integer with Integer.MAX_VALUE digits
+	 */
+	private static final int MAX_LIMBS = (Integer.MAX_VALUE - 1) / BigInteger.BASE_DIGITS + 1;
+
+	/**
+	 * Number of limbs allocated before any are read from a DataInput
+	 */
+	private static final int FIRST_LIMBS = CHUNK_SIZE;
+
+	private BigIntegerIO() {
+	}
+
+	/**
+	 * Reads an integer from a character stream, up to the end of the stream.
+	 *
+	 * @param in Reader for the integer text, which is not closed
+	 * @return BigInteger instance that stores the integer read
+	 * @throws IOException If there is a problem reading the input
+	 * @throws IllegalArgumentException If the input is incorrectly formatted
+	 */
+	public static BigInteger read(Reader in)
+	throws IOException {
+		DigitAccumulator digits = new DigitAccumulator();
+		char[] chunk = new char[CHUNK_SIZE];
+		int count;
+		while ((count = in.read(chunk)) != -1) {
+			for (int i = 0; i < count; i++) {
+				digits.accept(chunk[i]);
+			}
+		}
+		return digits.finish();
+	}
+
+	/**
+	 * Reads an integer from a byte stream of ASCII text, up to the end of the stream.
+	 *
+	 * @param in InputStream for the integer text, which is not closed
+	 * @return BigInteger instance that stores the integer read
+	 * @throws IOException If there is a problem reading the input
+	 * @throws IllegalArgumentException If the input is incorrectly formatted
+	 */
+	public static BigInteger read(InputStream in)
+	throws IOException {
+		DigitAccumulator digits = new DigitAccumulator();
+		byte[] chunk = new byte[CHUNK_SIZE];
+		int count;
+		while ((count = in.read(chunk)) != -1) {
+			for (int i = 0; i < count; i++) {
+				digits.accept((char) chunk[i]);
+			}
+		}
+		return digits.finish();
+	}
+
+	/**
+	 * Reads an integer from a channel of ASCII text, such as a FileChannel, up to the end
+	 * of the channel.
+	 *
+	 * @param in Channel for the integer text, which is not closed
+	 * @return BigInteger instance that stores the integer read
+	 * @throws IOException If there is a problem reading the input
+	 * @throws IllegalArgumentException If the input is incorrectly formatted
+	 */
+	public static BigInteger read(ReadableByteChannel in)
+	throws IOException {
+		DigitAccumulator digits = new DigitAccumulator();
+		ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+		while (in.read(chunk) != -1) {
+			chunk.flip();
+			while (chunk.hasRemaining()) {
+				digits.accept((char) chunk.get());
+			}
+			chunk.clear();
+		}
+		return digits.finish();
+	}
+
+	/**
+	 * Reads an integer from a file of ASCII text.
+	 *
+	 * @param file File holding the integer text
+	 * @return BigInteger instance that stores the integer read
+	 * @throws IOException If there is a problem reading the file
+	 * @throws IllegalArgumentException If the file is incorrectly formatted
+	 */
+	public static BigInteger read(File file)
+	throws IOException {
+		try (FileChannel channel = new FileInputStream(file).getChannel()) {
+			return read(channel);
+		}
+	}
+
+	/**
+	 * Writes an integer to a character stream in the same format as BigInteger.toString.
+	 *
+	 * @param integer Integer to write
+	 * @param out Writer for the integer text, which is neither flushed nor closed
+	 * @throws IOException If there is a problem writing the output
+	 */
+	public static void write(BigInteger integer, Writer out)
+	throws IOException {
+		char[] chunk = new char[CHUNK_SIZE];
+		int[] limbs = integer.magnitude();
+		if (limbs.length == 0) {
+			out.write('0');
+			return;
+		}
+		if (integer.negative) {
+			out.write('-');
+		}
+		int topDigits = BigInteger.digitsIn(limbs[limbs.length - 1]);
+		BigInteger.writeDigits(limbs[limbs.length - 1], topDigits, chunk, topDigits);
+		int used = topDigits;
+		for (int i = limbs.length - 2; i >= 0; i--) {
+			if (used + BigInteger.BASE_DIGITS > chunk.length) {
+				out.write(chunk, 0, used);
+				used = 0;
+			}
+			used += BigInteger.BASE_DIGITS;
+			BigInteger.writeDigits(limbs[i], BigInteger.BASE_DIGITS, chunk, used);
+		}
+		out.write(chunk, 0, used);
+	}
+
+	/**
+	 * Writes an integer to a byte stream as ASCII text, in the same format as
+	 * BigInteger.toString.
+	 *
+	 * @param integer Integer to write
+	 * @param out OutputStream for the integer text, which is neither flushed nor closed
+	 * @throws IOException If there is a problem writing the output
+	 */
+	public static void write(BigInteger integer, OutputStream out)
+	throws IOException {
+		char[] digits = new char[BigInteger.BASE_DIGITS];
+		byte[] chunk = new byte[CHUNK_SIZE];
+		int[] limbs = integer.magnitude();
+		if (limbs.length == 0) {
+			out.write('0');
+			return;
+		}
+		if (integer.negative) {
+			out.write('-');
+		}
+		int used = 0;
+		for (int i = limbs.length - 1; i >= 0; i--) {
+			int count = (i == limbs.length - 1) ? BigInteger.digitsIn(limbs[i]) : BigInteger.BASE_DIGITS;
+			if (used + count > chunk.length) {
+				out.write(chunk, 0, used);
+				used = 0;
+			}
+			BigInteger.writeDigits(limbs[i], count, digits, count);
+			for (int d = 0; d < count; d++) {
+				chunk[used++] = (byte) digits[d];
+			}
+		}
+		out.write(chunk, 0, used);
+	}
+
+	/**
+	 * Writes an integer to a file as ASCII text, replacing the file if it exists.
+	 *
+	 * @param integer Integer to write
+	 * @param file File for the integer text
+	 * @throws IOException If there is a problem writing the file
+	 */
+	public static void write(BigInteger integer, File file)
+	throws IOException {
+		try (OutputStream out = new FileOutputStream(file)) {
+			write(integer, out);
+		}
+	}
+
+	/**
+	 * Returns the number of bytes writeTo() takes for an integer, so that a buffer of the
+	 * right size can be allocated or mapped beforehand.
+	 *
+	 * @param integer Integer to measure
+	 * @return Size of the binary form in bytes
+	 */
+	public static int binarySize(BigInteger integer) {
+		return 4 * (integer.magnitude().length + 1);
+	}
+
+	/**
+	 * Writes an integer in binary form to a DataOutput, such as a DataOutputStream or a
+	 * RandomAccessFile.
+	 *
+	 * @param integer Integer to write
+	 * @param out Output for the binary form, which is neither flushed nor closed
+	 * @throws IOException If there is a problem writing the output
+	 */
+	public static void writeTo(BigInteger integer, DataOutput out)
+	throws IOException {
+		int[] limbs = integer.magnitude();
+		out.writeInt(header(integer));
+		for (int i = 0; i < limbs.length; i++) {
+			out.writeInt(limbs[i]);
+		}
+	}
+
+	/**
+	 * Writes an integer in binary form to a buffer at its current position, and moves the
+	 * position past it. The binary form is big-endian whatever the order of the buffer.
+	 *
+	 * @param integer Integer to write
+	 * @param out Buffer with at least binarySize(integer) bytes remaining
+	 * @throws java.nio.BufferOverflowException If the buffer does not have enough room
+	 */
+	public static void writeTo(BigInteger integer, ByteBuffer out) {
+		out.duplicate().order(ByteOrder.BIG_ENDIAN).asIntBuffer()
+			.put(header(integer))
+			.put(integer.magnitude());
+		out.position(out.position() + binarySize(integer));
+	}
+
+	/**
+	 * Reads an integer in binary form from a DataInput, such as a DataInputStream or a
+	 * RandomAccessFile.
+	 *
+	 * @param in Input for the binary form, which is not closed
+	 * @return BigInteger instance that stores the integer read
+	 * @throws IOException If there is a problem reading the input, it ends early, or its header is not valid
+	 * @throws IllegalArgumentException If the limbs read are not those of an integer in binary form
+	 */
+	public static BigInteger readFrom(DataInput in)
+	throws IOException {
+		int header = in.readInt();
+		int length = header & ~NEGATIVE_BIT;
+		if (length > MAX_LIMBS) {
+			throw new IOException("Incorrect Format: header of " + length + " limbs");
+		}
+
+		//The limbs array grows as limbs arrive, so a corrupt length runs into the end
+		//of the input instead of allocating all of it up front
+		int[] limbs = new int[Math.min(length, FIRST_LIMBS)];
+		for (int i = 0; i < length; i++) {
+			if (i == limbs.length) {
+				limbs = Arrays.copyOf(limbs, (int) Math.min(length, 2L * limbs.length));
+			}
+			limbs[i] = in.readInt();
+		}
+		return fromBinary(header, limbs);
+	}
+
+	/**
+	 * Reads an integer in binary form from a buffer at its current position, and moves the
+	 * position past it. The limbs are copied straight out of the buffer in one bulk get,
+	 * so reading from a memory mapped file (FileChannel.map) goes from the page cache to
+	 * the new integer without any intermediate copy.
+	 *
+	 * @param in Buffer holding the binary form, in any byte order
+	 * @return BigInteger instance that stores the integer read
+	 * @throws BufferUnderflowException If the buffer ends before the integer does
+	 * @throws IllegalArgumentException If the buffer does not hold an integer in binary form
+	 */
+	public static BigInteger readFrom(ByteBuffer in) {
+		ByteBuffer view = in.duplicate().order(ByteOrder.BIG_ENDIAN);
+		int header = view.getInt();
+		int length = header & ~NEGATIVE_BIT;
+		if (length > view.remaining() / 4) {
+			throw new BufferUnderflowException();
+		}
+		int[] limbs = new int[length];
+		view.asIntBuffer().get(limbs);
+		in.position(in.position() + 4 * (length + 1));
+		return fromBinary(header, limbs);
+	}
+
+//----------Private Helper Methods----------//
+
+	//This method returns the binary header of an integer
+	private static int header(BigInteger integer) {
+		return integer.negative ? integer.magnitude().length | NEGATIVE_BIT : integer.magnitude().length;
+	}
+
+	//This method checks the limbs read in binary form and builds the integer they hold
+	private static BigInteger fromBinary(int header, int[] limbs) {
+		for (int i = 0; i < limbs.length; i++) {
+			if (limbs[i] < 0 || limbs[i] >= BigInteger.BASE) {
+				throw new IllegalArgumentException("Incorrect Format");
+			}
+		}
+		return new BigInteger((header & NEGATIVE_BIT) != 0, limbs);
+	}
+
+	/**
+	 * Builds a magnitude from decimal text fed one character at a time, most significant
+	 * digit first. Digits are packed into nine digit groups as they arrive; since the
+	 * length of the number is only known at the end, the groups are realigned to limbs
+	 * by finish().
+	 */
+	private static final class DigitAccumulator {
+
+		//States of the format, in the order they are gone through
+		private static final int BEFORE_SIGN = 0;
+		private static final int BEFORE_DIGITS = 1;
+		private static final int IN_DIGITS = 2;
+		private static final int AFTER_DIGITS = 3;
+
+		private int state = BEFORE_SIGN;
+		private boolean negative;
+
+		//Full nine digit groups, most significant first, then the group being filled
+		private int[] groups = new int[16];
+		private int groupCount;
+		private int group;
+		private int groupDigits;
+
+		void accept(char c) {
+			if (c <= ' ') {
+				if (state == IN_DIGITS) {
+					state = AFTER_DIGITS;
+				}
+				else if (state == BEFORE_DIGITS) {
+					throw new IllegalArgumentException("Incorrect Format");
+				}
+				return;
+			}
+			if (state == BEFORE_SIGN && (c == '+' || c == '-')) {
+				negative = c == '-';
+				state = BEFORE_DIGITS;
+				return;
+			}
+			if (c < '0' || c > '9' || state == AFTER_DIGITS) {
+				throw new IllegalArgumentException("Incorrect Format");
+			}
+			state = IN_DIGITS;
+
+			//Leading zeros are insignificant
+			if (groupCount == 0 && groupDigits == 0 && c == '0') {
+				return;
+			}
+			group = group * 10 + (c - '0');
+			if (++groupDigits == BigInteger.BASE_DIGITS) {
+				if (groupCount == groups.length) {
+					groups = Arrays.copyOf(groups, groupCount * 2);
+				}
+				groups[groupCount++] = group;
+				group = 0;
+				groupDigits = 0;
+			}
+		}
+
+		BigInteger finish() {
+			if (state != IN_DIGITS && state != AFTER_DIGITS) {
+				throw new IllegalArgumentException("Incorrect Format");
+			}
+
+			//The groups read as base 10^9 digits, least significant limb first,
+			//then shifted up by the digits of the partial group and added to it
+			int[] limbs = new int[groupCount + (groupDigits > 0 ? 1 : 0)];
+			long carry = group;
+			long scale = BigInteger.POWERS_OF_TEN[groupDigits];
+			for (int i = 0; i < groupCount; i++) {
+				long value = groups[groupCount - 1 - i] * scale + carry;
+				limbs[i] = (int) (value % BigInteger.BASE);
+				carry = value / BigInteger.BASE;
+			}
+			if (groupDigits > 0) {
+				limbs[groupCount] = (int) carry;
+			}
+			return new BigInteger(negative, limbs);
+		}
+	}
+}
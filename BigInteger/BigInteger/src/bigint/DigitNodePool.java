@@ -0,0 +1,90 @@
+package bigint;
+
+/**
+ * This class is a pool of DigitNodes, for callers that convert many big integers to the
+ * linked list form and would otherwise leave a garbage node behind for every digit.
+ * Lists that are no longer needed are released back to the pool, and toDigitList(pool)
+ * takes its nodes from there before allocating any new ones.
+ *
+ * Free nodes are kept in a list chained through their next pointers. When it runs out,
+ * a whole slab of nodes is allocated in one go, so the nodes of a list sit close
+ * together in memory. Like MutableBigInteger, a pool is not safe to share between threads.
+ *
+ */
+public class DigitNodePool {
+
+	/**
+	 * Number of nodes allocated at a time when the pool is empty
+	 */
+	private static final int SLAB_SIZE = 1024;
+
+	/**
+	 * Front of the list of free nodes
+	 */
+	private DigitNode free;
+
+	/**
+	 * Number of nodes in the free list
+	 */
+	private int available;
+
+	/**
+	 * Initializes an empty pool.
+	 */
+	public DigitNodePool() {
+		free = null;
+		available = 0;
+	}
+
+	/**
+	 * Returns a list of digits to this pool. The nodes must not be used by the caller
+	 * after they are released, since they will be handed out again.
+	 *
+	 * @param front Front of the digit list to release, may be null
+	 */
+	public void release(DigitNode front) {
+		if (front == null) {
+			return;
+		}
+		DigitNode tail = front;
+		int count = 1;
+		while (tail.next != null) {
+			tail = tail.next;
+			count++;
+		}
+		tail.next = free;
+		free = front;
+		available += count;
+	}
+
+	/**
+	 * Returns the number of free nodes in this pool.
+	 *
+	 * @return Number of nodes that can be taken without allocating
+	 */
+	public int available() {
+		return available;
+	}
+
+	/**
+	 * Takes a node from this pool, allocating a new slab first if the pool is empty.
+	 *
+	 * @param digit Digit
+	 * @param next Next pointer
+	 * @return Node holding the digit and next pointer
+	 */
+	DigitNode allocate(int digit, DigitNode next) {
+		if (free == null) {
+			for (int i = 0; i < SLAB_SIZE; i++) {
+				free = new DigitNode(0, free);
+			}
+			available = SLAB_SIZE;
+		}
+		DigitNode node = free;
+		free = node.next;
+		available--;
+		node.digit = digit;
+		node.next = next;
+		return node;
+	}
+}
@@ -0,0 +1,296 @@
+package bigint;
+
+import java.util.Arrays;
+
+/**
+ * This class divides BigInteger magnitudes, i.e. arrays of base 10^9 limbs with the
+ * least significant limb first and no insignificant limbs.
+ *
+ * Short divisors use Knuth's algorithm D, in O(n*m) time. Once the divisor has at least
+ * BigInteger.burnikelZieglerThreshold digits and the quotient is long enough to be worth
+ * splitting, the recursive Burnikel-Ziegler method is used instead, so that division runs
+ * at the speed of the fast multiplication tiers.
+ *
+ */
+final class Division {
+
+	/**
+	 * The magnitude 1
+	 */
+	private static final int[] ONE = {1};
+
+	private Division() {
+	}
+
+	/**
+	 * Divides magnitude a by magnitude b, which must not be zero.
+	 *
+	 * @param a Dividend magnitude
+	 * @param b Divisor magnitude
+	 * @return Array holding the quotient and the remainder magnitudes, in that order
+	 */
+	static int[][] divide(int[] a, int[] b) {
+		if (BigInteger.compareLimbs(a, b) < 0) {
+			return new int[][] {BigInteger.NO_LIMBS, a};
+		}
+		int thresholdLimbs = limbsFor(BigInteger.burnikelZieglerThreshold);
+		if (b.length >= thresholdLimbs && a.length - b.length >= thresholdLimbs / 2) {
+			return burnikelZiegler(a, b, thresholdLimbs);
+		}
+		return knuth(a, b);
+	}
+
+	/**
+	 * Divides a magnitude by a positive int below 10^9.
+	 *
+	 * @param a Dividend magnitude
+	 * @param divisor Divisor
+	 * @return Quotient magnitude, without insignificant limbs
+	 */
+	static int[] divideSmall(int[] a, int divisor) {
+		int[] quotient = new int[a.length];
+		long remainder = 0;
+		for (int i = a.length - 1; i >= 0; i--) {
+			long current = remainder * BigInteger.BASE + a[i];
+			quotient[i] = (int) (current / divisor);
+			remainder = current % divisor;
+		}
+		return Multiplication.trim(quotient);
+	}
+
+	/**
+	 * Returns the remainder of dividing a magnitude by a positive int below 10^9.
+	 *
+	 * @param a Dividend magnitude
+	 * @param divisor Divisor
+	 * @return Remainder
+	 */
+	static int remainderSmall(int[] a, int divisor) {
+		long remainder = 0;
+		for (int i = a.length - 1; i >= 0; i--) {
+			remainder = (remainder * BigInteger.BASE + a[i]) % divisor;
+		}
+		return (int) remainder;
+	}
+
+	/**
+	 * Multiplies a magnitude by a non-negative int below 10^9.
+	 *
+	 * @param a Magnitude
+	 * @param multiplier Multiplier
+	 * @return Product magnitude, without insignificant limbs
+	 */
+	static int[] multiplySmall(int[] a, int multiplier) {
+		int[] result = new int[a.length + 1];
+		long carry = 0;
+		for (int i = 0; i < a.length; i++) {
+			long product = (long) a[i] * multiplier + carry;
+			result[i] = (int) (product % BigInteger.BASE);
+			carry = product / BigInteger.BASE;
+		}
+		result[a.length] = (int) carry;
+		return Multiplication.trim(result);
+	}
+
+	/**
+	 * Divides magnitude a by magnitude b with Knuth's algorithm D (TAOCP 4.3.1). Both are
+	 * first scaled so that the top limb of the divisor is at least half the base, which
+	 * keeps every quotient limb estimate at most two above the true limb.
+	 *
+	 * @param a Dividend magnitude
+	 * @param b Divisor magnitude, not zero
+	 * @return Array holding the quotient and the remainder magnitudes, in that order
+	 */
+	static int[][] knuth(int[] a, int[] b) {
+		if (BigInteger.compareLimbs(a, b) < 0) {
+			return new int[][] {BigInteger.NO_LIMBS, a};
+		}
+		if (b.length == 1) {
+			return new int[][] {divideSmall(a, b[0]), limbOf(remainderSmall(a, b[0]))};
+		}
+		int n = b.length;
+		int m = a.length - n;
+		int factor = BigInteger.BASE / (b[n - 1] + 1);
+		int[] v = multiplySmall(b, factor);
+		int[] u = Arrays.copyOf(multiplySmall(a, factor), a.length + 1);
+		int[] q = new int[m + 1];
+		long vTop = v[n - 1];
+		long vNext = v[n - 2];
+
+		for (int j = m; j >= 0; j--) {
+
+			//Estimate the quotient limb from the top two limbs, then correct it with the next one
+			long numerator = u[j + n] * (long) BigInteger.BASE + u[j + n - 1];
+			long qhat = numerator / vTop;
+			long rhat = numerator % vTop;
+			while (qhat >= BigInteger.BASE || qhat * vNext > rhat * BigInteger.BASE + u[j + n - 2]) {
+				qhat--;
+				rhat += vTop;
+				if (rhat >= BigInteger.BASE) {
+					break;
+				}
+			}
+
+			//Multiply and subtract qhat * v from u[j..j+n]
+			long carry = 0;
+			int borrow = 0;
+			for (int i = 0; i < n; i++) {
+				long product = qhat * v[i] + carry;
+				carry = product / BigInteger.BASE;
+				long difference = u[i + j] - product % BigInteger.BASE - borrow;
+				if (difference < 0) {
+					difference += BigInteger.BASE;
+					borrow = 1;
+				}
+				else {
+					borrow = 0;
+				}
+				u[i + j] = (int) difference;
+			}
+			long top = u[j + n] - carry - borrow;
+
+			//The estimate was one too big, so add v back once
+			if (top < 0) {
+				qhat--;
+				int addCarry = 0;
+				for (int i = 0; i < n; i++) {
+					int sum = u[i + j] + v[i] + addCarry;
+					if (sum >= BigInteger.BASE) {
+						sum -= BigInteger.BASE;
+						addCarry = 1;
+					}
+					else {
+						addCarry = 0;
+					}
+					u[i + j] = sum;
+				}
+				top += addCarry;
+			}
+			u[j + n] = (int) top;
+			q[j] = (int) qhat;
+		}
+
+		int[] remainder = divideSmall(Multiplication.trim(Arrays.copyOf(u, n)), factor);
+		return new int[][] {Multiplication.trim(q), remainder};
+	}
+
+	/**
+	 * Divides magnitude a by magnitude b with the recursive method of Burnikel and
+	 * Ziegler ("Fast Recursive Division", 1998). The divisor is scaled and padded to a
+	 * block size n of the form j * 2^k, the dividend is cut into blocks of n limbs, and
+	 * each step divides a two block value by the divisor with divide2n1n.
+	 *
+	 * @param a Dividend magnitude
+	 * @param b Divisor magnitude, not zero
+	 * @param thresholdLimbs Divisor length below which the recursion uses algorithm D
+	 * @return Array holding the quotient and the remainder magnitudes, in that order
+	 */
+	static int[][] burnikelZiegler(int[] a, int[] b, int thresholdLimbs) {
+		int r = b.length;
+		int m = 1 << (32 - Integer.numberOfLeadingZeros(r / thresholdLimbs));
+		int j = (r + m - 1) / m;
+		int n = j * m;
+
+		//Scale so the divisor's top limb is at least half the base, then pad it to n limbs
+		int factor = BigInteger.BASE / (b[r - 1] + 1);
+		int padding = n - r;
+		int[] bn = shift(multiplySmall(b, factor), padding);
+		int[] an = shift(multiplySmall(a, factor), padding);
+
+		//Cut the dividend into t blocks, with a top block below the divisor
+		int t = Math.max(2, (an.length + n - 1) / n);
+		if (BigInteger.compareLimbs(Multiplication.slice(an, (t - 1) * n, an.length), bn) >= 0) {
+			t++;
+		}
+		int[] quotient = new int[t * n];
+		int[] z = Multiplication.slice(an, (t - 2) * n, an.length);
+		int[] remainder = BigInteger.NO_LIMBS;
+		for (int i = t - 2; i >= 0; i--) {
+			int[][] qr = divide2n1n(z, bn, thresholdLimbs);
+			Multiplication.addInto(quotient, qr[0], i * n);
+			remainder = qr[1];
+			if (i > 0) {
+				z = BigInteger.addLimbs(shift(remainder, n), Multiplication.slice(an, (i - 1) * n, i * n));
+			}
+		}
+
+		//Undo the padding and the scaling on the remainder
+		remainder = divideSmall(Multiplication.slice(remainder, padding, remainder.length), factor);
+		return new int[][] {Multiplication.trim(quotient), remainder};
+	}
+
+//----------Private Helper Methods----------//
+
+	//This method divides a, which must be below b * BASE^n, by the n limb scaled divisor b
+	private static int[][] divide2n1n(int[] a, int[] b, int thresholdLimbs) {
+		int n = b.length;
+		if ((n & 1) != 0 || n < thresholdLimbs) {
+			return knuth(a, b);
+		}
+		int half = n / 2;
+
+		//Divide the top three halves, then the remainder followed by the last half
+		int[][] first = divide3n2n(Multiplication.slice(a, half, a.length), b, thresholdLimbs);
+		int[] next = BigInteger.addLimbs(shift(first[1], half), Multiplication.slice(a, 0, half));
+		int[][] second = divide3n2n(next, b, thresholdLimbs);
+
+		int[] quotient = new int[n + 1];
+		Multiplication.addInto(quotient, second[0], 0);
+		Multiplication.addInto(quotient, first[0], half);
+		return new int[][] {Multiplication.trim(quotient), second[1]};
+	}
+
+	//This method divides a, which must be below b * BASE^(n/2), by the n limb scaled divisor b
+	private static int[][] divide3n2n(int[] a, int[] b, int thresholdLimbs) {
+		int half = b.length / 2;
+		int[] b1 = Multiplication.slice(b, half, b.length);
+		int[] b2 = Multiplication.slice(b, 0, half);
+		int[] a12 = Multiplication.slice(a, half, a.length);
+		int[] a1 = Multiplication.slice(a, 2 * half, a.length);
+
+		//Estimate the quotient from the top halves, the estimate is at most two too big
+		int[] q;
+		int[] r1;
+		if (BigInteger.compareLimbs(a1, b1) < 0) {
+			int[][] qr = divide2n1n(a12, b1, thresholdLimbs);
+			q = qr[0];
+			r1 = qr[1];
+		}
+		else {
+			q = new int[half];
+			Arrays.fill(q, BigInteger.BASE - 1);
+			r1 = BigInteger.subtractLimbs(BigInteger.addLimbs(a12, b1), shift(b1, half));
+			r1 = Multiplication.trim(r1);
+		}
+
+		//r = r1 * BASE^half + a3 - q * b2, corrected until it is not negative
+		BigInteger r = new BigInteger(false, BigInteger.addLimbs(shift(r1, half), Multiplication.slice(a, 0, half)));
+		r = BigInteger.subtract(r, new BigInteger(false, Multiplication.multiply(q, b2)));
+		BigInteger divisor = new BigInteger(false, b);
+		while (r.negative) {
+			r = BigInteger.add(r, divisor);
+			q = Multiplication.trim(BigInteger.subtractLimbs(q, ONE));
+		}
+		return new int[][] {q, r.magnitude()};
+	}
+
+	//This method converts a threshold in decimal digits to a length in limbs
+	private static int limbsFor(int digits) {
+		return Math.max(2, (digits + BigInteger.BASE_DIGITS - 1) / BigInteger.BASE_DIGITS);
+	}
+
+	//This method multiplies a magnitude by BASE^limbCount
+	static int[] shift(int[] a, int limbCount) {
+		if (a.length == 0 || limbCount == 0) {
+			return a;
+		}
+		int[] result = new int[a.length + limbCount];
+		System.arraycopy(a, 0, result, limbCount, a.length);
+		return result;
+	}
+
+	//This method returns the magnitude of a single limb value
+	private static int[] limbOf(int value) {
+		return value == 0 ? BigInteger.NO_LIMBS : new int[] {value};
+	}
+}
@@ -0,0 +1,259 @@
+package bigint;
+
+import java.util.Arrays;
+
+/**
+ * This class does exponentiation and greatest common divisors on BigInteger magnitudes,
+ * i.e. arrays of base 10^9 limbs with the least significant limb first and no
+ * insignificant limbs.
+ *
+ * Exponents are stored in decimal, so powers are built one decimal digit of the exponent
+ * at a time (x^(10e + d) = (x^e)^10 * x^d) from a table of the first ten powers, which
+ * costs about as many multiplications as the usual binary method.
+ *
+ */
+final class ModularArithmetic {
+
+	/**
+	 * The magnitude 1
+	 */
+	private static final int[] ONE = {1};
+
+	private ModularArithmetic() {
+	}
+
+	/**
+	 * Raises a magnitude to a non-negative power by repeated squaring.
+	 *
+	 * @param base Base magnitude
+	 * @param exponent Exponent, not negative
+	 * @return Power magnitude
+	 */
+	static int[] pow(int[] base, int exponent) {
+		int[] result = ONE;
+		int[] square = base;
+		while (exponent > 0) {
+			if ((exponent & 1) == 1) {
+				result = Multiplication.multiply(result, square);
+			}
+			exponent >>= 1;
+			if (exponent > 0) {
+				square = Multiplication.multiply(square, square);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Raises a magnitude to a power modulo a modulus. Moduli that are prime to 10 use
+	 * Montgomery multiplication, which replaces every reduction by a division with
+	 * shifts by whole limbs; other moduli reduce with a division after each product.
+	 *
+	 * @param base Base magnitude, already reduced below the modulus
+	 * @param exponent Exponent magnitude
+	 * @param modulus Modulus magnitude, greater than 1
+	 * @return Power magnitude, reduced below the modulus
+	 */
+	static int[] modPow(int[] base, int[] exponent, int[] modulus) {
+		if (modulus[0] % 2 != 0 && modulus[0] % 5 != 0) {
+			return new Montgomery(modulus).pow(base, exponent);
+		}
+		int[][] table = new int[10][];
+		table[0] = ONE;
+		for (int d = 1; d < 10; d++) {
+			table[d] = reduce(Multiplication.multiply(table[d - 1], base), modulus);
+		}
+		int[] result = ONE;
+		for (int i = exponent.length - 1; i >= 0; i--) {
+			int limb = exponent[i];
+			int digits = (i == exponent.length - 1) ? BigInteger.digitsIn(limb) : BigInteger.BASE_DIGITS;
+			for (int d = digits - 1; d >= 0; d--) {
+				int digit = (limb / BigInteger.POWERS_OF_TEN[d]) % 10;
+				int[] squared = reduce(Multiplication.multiply(result, result), modulus);
+				int[] fourth = reduce(Multiplication.multiply(squared, squared), modulus);
+				int[] fifth = reduce(Multiplication.multiply(fourth, result), modulus);
+				result = reduce(Multiplication.multiply(fifth, fifth), modulus);
+				if (digit != 0) {
+					result = reduce(Multiplication.multiply(result, table[digit]), modulus);
+				}
+			}
+		}
+		return reduce(result, modulus);
+	}
+
+	/**
+	 * Returns the greatest common divisor of two magnitudes. Euclid's remainder steps
+	 * shrink the larger one while the lengths differ, then the binary method finishes
+	 * with subtractions and halvings. Since 10^9 is a multiple of 2^9, up to nine factors
+	 * of two can be read from the low limb and removed in one pass.
+	 *
+	 * @param a First magnitude
+	 * @param b Second magnitude
+	 * @return Greatest common divisor magnitude, zero only if both are zero
+	 */
+	static int[] gcd(int[] a, int[] b) {
+		if (BigInteger.compareLimbs(a, b) < 0) {
+			int[] swap = a;
+			a = b;
+			b = swap;
+		}
+		while (b.length != 0 && a.length != b.length) {
+			int[] remainder = Division.divide(a, b)[1];
+			a = b;
+			b = remainder;
+		}
+		if (b.length == 0) {
+			return a;
+		}
+
+		//Common factors of two are set aside, then both values are kept odd
+		int twos = 0;
+		while (((a[0] | b[0]) & 1) == 0) {
+			int shift = Math.min(trailingTwos(a), trailingTwos(b));
+			a = Division.divideSmall(a, 1 << shift);
+			b = Division.divideSmall(b, 1 << shift);
+			twos += shift;
+		}
+		a = removeTwos(a);
+		while (b.length != 0) {
+			b = removeTwos(b);
+			if (BigInteger.compareLimbs(a, b) > 0) {
+				int[] swap = a;
+				a = b;
+				b = swap;
+			}
+			b = Multiplication.trim(BigInteger.subtractLimbs(b, a));
+		}
+		while (twos > 0) {
+			int shift = Math.min(twos, 29);
+			a = Division.multiplySmall(a, 1 << shift);
+			twos -= shift;
+		}
+		return a;
+	}
+
+//----------Private Helper Methods----------//
+
+	/**
+	 * Multiplication modulo an odd modulus prime to 5, on values kept in Montgomery form
+	 * xR mod m with R = BASE^n, where n is the length of the modulus.
+	 */
+	private static final class Montgomery {
+
+		private final int[] modulus;
+		private final int n;
+
+		/**
+		 * -modulus^-1 mod BASE
+		 */
+		private final long inverse;
+
+		Montgomery(int[] modulus) {
+			this.modulus = modulus;
+			this.n = modulus.length;
+
+			//Newton's iteration doubles the number of correct decimal digits of the inverse
+			//each round, starting from the inverse modulo 10
+			long m0 = modulus[0];
+			long x = 1;
+			while ((m0 * x) % 10 != 1) {
+				x++;
+			}
+			for (int digits = 1; digits < BigInteger.BASE_DIGITS; digits *= 2) {
+				x = x * ((2 - m0 * x % BigInteger.BASE + BigInteger.BASE) % BigInteger.BASE) % BigInteger.BASE;
+			}
+			this.inverse = (BigInteger.BASE - x) % BigInteger.BASE;
+		}
+
+		int[] pow(int[] base, int[] exponent) {
+			int[][] table = new int[10][];
+			table[0] = toMontgomery(ONE);
+			table[1] = toMontgomery(base);
+			for (int d = 2; d < 10; d++) {
+				table[d] = multiply(table[d - 1], table[1]);
+			}
+			int[] result = table[0];
+			for (int i = exponent.length - 1; i >= 0; i--) {
+				int limb = exponent[i];
+				int digits = (i == exponent.length - 1) ? BigInteger.digitsIn(limb) : BigInteger.BASE_DIGITS;
+				for (int d = digits - 1; d >= 0; d--) {
+					int digit = (limb / BigInteger.POWERS_OF_TEN[d]) % 10;
+					int[] squared = multiply(result, result);
+					int[] fifth = multiply(multiply(squared, squared), result);
+					result = multiply(fifth, fifth);
+					if (digit != 0) {
+						result = multiply(result, table[digit]);
+					}
+				}
+			}
+
+			//Multiplying by plain 1 takes the result out of Montgomery form
+			int[] one = new int[n];
+			one[0] = 1;
+			return Multiplication.trim(multiply(result, one));
+		}
+
+		//This method converts a value below the modulus to Montgomery form, as n limbs
+		private int[] toMontgomery(int[] value) {
+			return Arrays.copyOf(reduce(Division.shift(value, n), modulus), n);
+		}
+
+		//This method returns a * b / R mod m for n limb values a and b, as n limbs
+		private int[] multiply(int[] a, int[] b) {
+			int[] t = new int[n + 2];
+			for (int i = 0; i < n; i++) {
+
+				//t += a[i] * b
+				long ai = a[i];
+				long carry = 0;
+				for (int j = 0; j < n; j++) {
+					long sum = t[j] + ai * b[j] + carry;
+					t[j] = (int) (sum % BigInteger.BASE);
+					carry = sum / BigInteger.BASE;
+				}
+				long sum = t[n] + carry;
+				t[n] = (int) (sum % BigInteger.BASE);
+				t[n + 1] += (int) (sum / BigInteger.BASE);
+
+				//t = (t + u * m) / BASE, with u chosen to clear the low limb
+				long u = t[0] * inverse % BigInteger.BASE;
+				carry = (t[0] + u * modulus[0]) / BigInteger.BASE;
+				for (int j = 1; j < n; j++) {
+					sum = t[j] + u * modulus[j] + carry;
+					t[j - 1] = (int) (sum % BigInteger.BASE);
+					carry = sum / BigInteger.BASE;
+				}
+				sum = t[n] + carry;
+				t[n - 1] = (int) (sum % BigInteger.BASE);
+				sum = t[n + 1] + sum / BigInteger.BASE;
+				t[n] = (int) sum;
+				t[n + 1] = 0;
+			}
+
+			//t is now below 2m, so one subtraction is enough
+			int[] result = Multiplication.trim(Arrays.copyOf(t, n + 1));
+			if (BigInteger.compareLimbs(result, modulus) >= 0) {
+				result = BigInteger.subtractLimbs(result, modulus);
+			}
+			return Arrays.copyOf(result, n);
+		}
+	}
+
+	//This method reduces a magnitude modulo a modulus
+	private static int[] reduce(int[] value, int[] modulus) {
+		return Division.divide(value, modulus)[1];
+	}
+
+	//This method counts the factors of two of a non-zero magnitude that its low limb shows, at most nine
+	private static int trailingTwos(int[] a) {
+		return Math.min(Integer.numberOfTrailingZeros(a[0]), BigInteger.BASE_DIGITS);
+	}
+
+	//This method divides out every factor of two of a non-zero magnitude
+	private static int[] removeTwos(int[] a) {
+		while ((a[0] & 1) == 0) {
+			a = Division.divideSmall(a, 1 << trailingTwos(a));
+		}
+		return a;
+	}
+}
@@ -0,0 +1,343 @@
+package bigint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class multiplies BigInteger magnitudes, i.e. arrays of base 10^9 limbs with the
+ * least significant limb first and no insignificant limbs.
+ *
+ * The method is picked from the size of the shorter operand: schoolbook below
+ * BigInteger.karatsubaThreshold digits, Karatsuba below BigInteger.toomCookThreshold
+ * digits, Toom-Cook 3-way below BigInteger.nttThreshold digits, and a number theoretic
+ * transform above that.
+ *
+ * Once the shorter operand reaches BigInteger.parallelThreshold digits, the independent
+ * subproblems of Karatsuba and Toom-Cook, and the pieces of an unbalanced product, are
+ * multiplied in parallel on the common fork-join pool.
+ *
+ */
+final class Multiplication {
+
+	/**
+	 * Smallest operand length, in limbs, that Karatsuba can split into shorter subproblems
+	 */
+	private static final int MIN_KARATSUBA_LIMBS = 4;
+
+	/**
+	 * Smallest operand length, in limbs, that Toom-Cook can split into shorter subproblems
+	 */
+	private static final int MIN_TOOM_COOK_LIMBS = 6;
+
+	private Multiplication() {
+	}
+
+	/**
+	 * Multiplies two magnitudes with the method that suits their size.
+	 *
+	 * @param a First magnitude
+	 * @param b Second magnitude
+	 * @return Product magnitude, without insignificant limbs
+	 */
+	static int[] multiply(int[] a, int[] b) {
+		if (a.length < b.length) {
+			int[] swap = a;
+			a = b;
+			b = swap;
+		}
+		if (b.length == 0) {
+			return BigInteger.NO_LIMBS;
+		}
+		if (b.length < Math.max(limbsFor(BigInteger.karatsubaThreshold), MIN_KARATSUBA_LIMBS)) {
+			return trim(schoolbook(a, b));
+		}
+		if (b.length >= limbsFor(BigInteger.nttThreshold) && NumberTheoreticTransform.fits(a.length, b.length)) {
+			return trim(NumberTheoreticTransform.multiply(a, b));
+		}
+
+		//Split a much longer first operand into pieces as long as the second one,
+		//so that the faster methods below always work on balanced operands
+		if (a.length >= 2 * b.length) {
+			int pieceCount = (a.length + b.length - 1) / b.length;
+			int[][] pieces = new int[pieceCount][];
+			int[][] multipliers = new int[pieceCount][];
+			for (int i = 0; i < pieceCount; i++) {
+				pieces[i] = slice(a, i * b.length, (i + 1) * b.length);
+				multipliers[i] = b;
+			}
+			int[][] products = multiplyAll(pieces, multipliers);
+			int[] result = new int[a.length + b.length];
+			for (int i = 0; i < pieceCount; i++) {
+				addInto(result, products[i], i * b.length);
+			}
+			return trim(result);
+		}
+		if (b.length < Math.max(limbsFor(BigInteger.toomCookThreshold), MIN_TOOM_COOK_LIMBS)) {
+			return karatsuba(a, b);
+		}
+		return toomCook3(a, b);
+	}
+
+	/**
+	 * Multiplies two magnitudes one limb pair at a time, in O(n*m) time.
+	 *
+	 * @param a First magnitude
+	 * @param b Second magnitude
+	 * @return Product magnitude, which may have an insignificant top limb
+	 */
+	static int[] schoolbook(int[] a, int[] b) {
+		int[] result = new int[a.length + b.length];
+		for (int i = 0; i < a.length; i++) {
+			long multiplier = a[i];
+			if (multiplier == 0) {
+				continue;
+			}
+			long carry = 0;
+			for (int j = 0; j < b.length; j++) {
+				long product = result[i + j] + multiplier * b[j] + carry;
+				result[i + j] = (int) (product % BigInteger.BASE);
+				carry = product / BigInteger.BASE;
+			}
+			result[i + b.length] = (int) carry;
+		}
+		return result;
+	}
+
+	/**
+	 * Multiplies two magnitudes by splitting each in two halves and doing three half
+	 * size multiplications instead of four, in O(n^1.585) time.
+	 *
+	 * @param a First magnitude
+	 * @param b Second magnitude
+	 * @return Product magnitude, without insignificant limbs
+	 */
+	static int[] karatsuba(int[] a, int[] b) {
+		int half = (Math.max(a.length, b.length) + 1) / 2;
+		int[] a0 = slice(a, 0, half);
+		int[] a1 = slice(a, half, a.length);
+		int[] b0 = slice(b, 0, half);
+		int[] b1 = slice(b, half, b.length);
+
+		//z1 = (a0 + a1)(b0 + b1) - z0 - z2 is the middle term
+		int[][] z = multiplyAll(
+				new int[][] {a0, a1, BigInteger.addLimbs(a0, a1)},
+				new int[][] {b0, b1, BigInteger.addLimbs(b0, b1)});
+		int[] z0 = z[0];
+		int[] z2 = z[1];
+		int[] z1 = subtract(subtract(z[2], z0), z2);
+
+		int[] result = new int[a.length + b.length];
+		addInto(result, z0, 0);
+		addInto(result, z1, half);
+		addInto(result, z2, 2 * half);
+		return trim(result);
+	}
+
+	/**
+	 * Multiplies two magnitudes by splitting each in three parts and evaluating the
+	 * product polynomial at 0, 1, -1, 2 and infinity, i.e. five third size
+	 * multiplications instead of nine, in O(n^1.465) time.
+	 *
+	 * The interpolation follows Bodrato's sequence, which needs only exact divisions
+	 * by 2 and 3. Intermediate values can be negative, so they are kept as BigIntegers.
+	 *
+	 * @param a First magnitude
+	 * @param b Second magnitude
+	 * @return Product magnitude, without insignificant limbs
+	 */
+	static int[] toomCook3(int[] a, int[] b) {
+		int third = (Math.max(a.length, b.length) + 2) / 3;
+		BigInteger a0 = part(a, 0, third);
+		BigInteger a1 = part(a, third, 2 * third);
+		BigInteger a2 = part(a, 2 * third, a.length);
+		BigInteger b0 = part(b, 0, third);
+		BigInteger b1 = part(b, third, 2 * third);
+		BigInteger b2 = part(b, 2 * third, b.length);
+
+		//Evaluation at -1, 1 and 2, then the five pointwise products
+		BigInteger da1 = BigInteger.add(a2, a0);
+		BigInteger db1 = BigInteger.add(b2, b0);
+		BigInteger am1 = BigInteger.subtract(da1, a1);
+		BigInteger bm1 = BigInteger.subtract(db1, b1);
+		da1 = BigInteger.add(da1, a1);
+		db1 = BigInteger.add(db1, b1);
+		BigInteger a2x = BigInteger.subtract(twice(BigInteger.add(da1, a2)), a0);
+		BigInteger b2x = BigInteger.subtract(twice(BigInteger.add(db1, b2)), b0);
+		BigInteger[] v = multiplyAll(
+				new BigInteger[] {a0, am1, da1, a2x, a2},
+				new BigInteger[] {b0, bm1, db1, b2x, b2});
+		BigInteger v0 = v[0];
+		BigInteger vm1 = v[1];
+		BigInteger v1 = v[2];
+		BigInteger v2 = v[3];
+		BigInteger vinf = v[4];
+
+		//Interpolation
+		BigInteger t2 = divideExactly(BigInteger.subtract(v2, vm1), 3);
+		BigInteger tm1 = divideExactly(BigInteger.subtract(v1, vm1), 2);
+		BigInteger t1 = BigInteger.subtract(v1, v0);
+		t2 = divideExactly(BigInteger.subtract(t2, t1), 2);
+		t1 = BigInteger.subtract(BigInteger.subtract(t1, tm1), vinf);
+		t2 = BigInteger.subtract(t2, twice(vinf));
+		tm1 = BigInteger.subtract(tm1, t2);
+
+		//Recomposition, every coefficient of the product polynomial is non-negative
+		int[] result = new int[a.length + b.length];
+		addInto(result, v0.magnitude(), 0);
+		addInto(result, tm1.magnitude(), third);
+		addInto(result, t1.magnitude(), 2 * third);
+		addInto(result, t2.magnitude(), 3 * third);
+		addInto(result, vinf.magnitude(), 4 * third);
+		return trim(result);
+	}
+
+//----------Private Helper Methods----------//
+
+	/**
+	 * A multiplication of two magnitudes that can run on a fork-join pool.
+	 */
+	private static final class Product extends RecursiveTask<int[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] a;
+		private final int[] b;
+
+		Product(int[] a, int[] b) {
+			this.a = a;
+			this.b = b;
+		}
+
+		@Override
+		protected int[] compute() {
+			return multiply(a, b);
+		}
+	}
+
+	//This method multiplies each pair (a[i], b[i]). Pairs of at least parallelThreshold
+	//digits are multiplied in parallel, the rest one after the other on this thread.
+	private static int[][] multiplyAll(int[][] a, int[][] b) {
+		int[][] products = new int[a.length][];
+		int parallelLimbs = limbsFor(BigInteger.parallelThreshold);
+		List<Product> tasks = new ArrayList<Product>();
+		List<Integer> taskIndexes = new ArrayList<Integer>();
+		for (int i = 0; i < a.length; i++) {
+			if (Math.min(a[i].length, b[i].length) >= parallelLimbs) {
+				tasks.add(new Product(a[i], b[i]));
+				taskIndexes.add(i);
+			}
+			else {
+				products[i] = multiply(a[i], b[i]);
+			}
+		}
+		if (!tasks.isEmpty()) {
+			ForkJoinTask.invokeAll(tasks);
+			for (int t = 0; t < tasks.size(); t++) {
+				products[taskIndexes.get(t)] = tasks.get(t).join();
+			}
+		}
+		return products;
+	}
+
+	//This method multiplies each pair (a[i], b[i]) of signed values, see multiplyAll(int[][], int[][])
+	private static BigInteger[] multiplyAll(BigInteger[] a, BigInteger[] b) {
+		int[][] aLimbs = new int[a.length][];
+		int[][] bLimbs = new int[b.length][];
+		for (int i = 0; i < a.length; i++) {
+			aLimbs[i] = a[i].magnitude();
+			bLimbs[i] = b[i].magnitude();
+		}
+		int[][] products = multiplyAll(aLimbs, bLimbs);
+		BigInteger[] result = new BigInteger[a.length];
+		for (int i = 0; i < a.length; i++) {
+			result[i] = new BigInteger(a[i].negative != b[i].negative, products[i]);
+		}
+		return result;
+	}
+
+	//This method converts a threshold in decimal digits to a length in limbs
+	private static int limbsFor(int digits) {
+		return (digits + BigInteger.BASE_DIGITS - 1) / BigInteger.BASE_DIGITS;
+	}
+
+	//This method copies limbs[from..to) without its insignificant limbs
+	static int[] slice(int[] limbs, int from, int to) {
+		to = Math.min(to, limbs.length);
+		if (from >= to) {
+			return BigInteger.NO_LIMBS;
+		}
+		int length = to - from;
+		while (length > 0 && limbs[from + length - 1] == 0) {
+			length--;
+		}
+		return length == 0 ? BigInteger.NO_LIMBS : Arrays.copyOfRange(limbs, from, from + length);
+	}
+
+	//This method returns limbs[from..to) as a non-negative BigInteger
+	private static BigInteger part(int[] limbs, int from, int to) {
+		return new BigInteger(false, slice(limbs, from, to));
+	}
+
+	//This method drops the insignificant limbs of a magnitude, copying only if there are any
+	static int[] trim(int[] limbs) {
+		int length = BigInteger.significantLength(limbs, limbs.length);
+		return length == limbs.length ? limbs : Arrays.copyOf(limbs, length);
+	}
+
+	//This method subtracts magnitude b from magnitude a, where a must be at least b
+	private static int[] subtract(int[] a, int[] b) {
+		if (b.length == 0) {
+			return a;
+		}
+		return trim(BigInteger.subtractLimbs(a, b));
+	}
+
+	//This method adds a magnitude into result, starting at the given limb position.
+	//The result array must be long enough to hold the sum.
+	static void addInto(int[] result, int[] value, int offset) {
+		int carry = 0;
+		int i = 0;
+		for (; i < value.length; i++) {
+			int sum = result[offset + i] + value[i] + carry;
+			if (sum >= BigInteger.BASE) {
+				sum -= BigInteger.BASE;
+				carry = 1;
+			}
+			else {
+				carry = 0;
+			}
+			result[offset + i] = sum;
+		}
+		for (i += offset; carry != 0; i++) {
+			int sum = result[i] + carry;
+			if (sum >= BigInteger.BASE) {
+				sum -= BigInteger.BASE;
+			}
+			else {
+				carry = 0;
+			}
+			result[i] = sum;
+		}
+	}
+
+	//This method doubles a BigInteger
+	private static BigInteger twice(BigInteger value) {
+		return BigInteger.add(value, value);
+	}
+
+	//This method divides a BigInteger by a small divisor that is known to divide it exactly
+	private static BigInteger divideExactly(BigInteger value, int divisor) {
+		int[] limbs = value.magnitude();
+		int[] quotient = new int[limbs.length];
+		long remainder = 0;
+		for (int i = limbs.length - 1; i >= 0; i--) {
+			long current = remainder * BigInteger.BASE + limbs[i];
+			quotient[i] = (int) (current / divisor);
+			remainder = current % divisor;
+		}
+		return new BigInteger(value.negative, quotient);
+	}
+}
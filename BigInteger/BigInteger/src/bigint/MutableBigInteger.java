@@ -0,0 +1,252 @@
+package bigint;
+
+import java.util.Arrays;
+
+/**
+ * This class is a mutable accumulator for big integers, for hot loops that would otherwise
+ * allocate a new BigInteger on every add. It keeps the same base 10^9 limbs as BigInteger,
+ * least significant limb first, in a buffer that is reused and grows geometrically.
+ *
+ * When the work is done, toBigInteger() freezes the current value into an immutable
+ * BigInteger. Unlike BigInteger, instances of this class are not safe to share between
+ * threads.
+ *
+ */
+public class MutableBigInteger {
+
+	/**
+	 * True if this is a negative integer
+	 */
+	private boolean negative;
+
+	/**
+	 * Limb buffer, of which only the first length limbs are in use. The limbs past
+	 * length are always zero, so the buffer can be added into without clearing it first.
+	 */
+	private int[] limbs;
+
+	/**
+	 * Number of limbs in use, with no insignificant limbs
+	 */
+	private int length;
+
+	/**
+	 * Initializes this accumulator to zero.
+	 */
+	public MutableBigInteger() {
+		negative = false;
+		limbs = new int[4];
+		length = 0;
+	}
+
+	/**
+	 * Initializes this accumulator to the value of a big integer.
+	 *
+	 * @param value Initial value
+	 */
+	public MutableBigInteger(BigInteger value) {
+		int[] magnitude = value.magnitude();
+		negative = value.negative;
+		limbs = Arrays.copyOf(magnitude, Math.max(4, magnitude.length));
+		length = magnitude.length;
+	}
+
+	/**
+	 * Adds a big integer to this accumulator. Either value may be negative.
+	 *
+	 * @param value Big integer to add, which is not modified
+	 * @return This accumulator
+	 */
+	public MutableBigInteger addInPlace(BigInteger value) {
+		int[] other = value.magnitude();
+		if (other.length == 0) {
+			return this;
+		}
+
+		//Same sign: add the magnitudes, keeping the sign
+		if (negative == value.negative || length == 0) {
+			negative = value.negative;
+			ensureCapacity(Math.max(length, other.length) + 1);
+			int carry = 0;
+			int i = 0;
+			for (; i < other.length; i++) {
+				int sum = limbs[i] + other[i] + carry;
+				if (sum >= BigInteger.BASE) {
+					sum -= BigInteger.BASE;
+					carry = 1;
+				}
+				else {
+					carry = 0;
+				}
+				limbs[i] = sum;
+			}
+			for (; carry != 0; i++) {
+				int sum = limbs[i] + 1;
+				if (sum >= BigInteger.BASE) {
+					sum -= BigInteger.BASE;
+				}
+				else {
+					carry = 0;
+				}
+				limbs[i] = sum;
+			}
+			length = Math.max(length, i);
+			return this;
+		}
+
+		//Different signs: subtract the smaller magnitude from the larger one, in place
+		int comparison = compareMagnitude(other);
+		if (comparison == 0) {
+			Arrays.fill(limbs, 0, length, 0);
+			length = 0;
+			negative = false;
+			return this;
+		}
+		ensureCapacity(other.length);
+		int borrow = 0;
+		int top = Math.max(length, other.length);
+		for (int i = 0; i < top; i++) {
+			int mine = limbs[i];
+			int theirs = i < other.length ? other[i] : 0;
+			int difference = comparison > 0 ? mine - theirs - borrow : theirs - mine - borrow;
+			if (difference < 0) {
+				difference += BigInteger.BASE;
+				borrow = 1;
+			}
+			else {
+				borrow = 0;
+			}
+			limbs[i] = difference;
+		}
+		if (comparison < 0) {
+			negative = value.negative;
+		}
+		length = BigInteger.significantLength(limbs, top);
+		return this;
+	}
+
+	/**
+	 * Multiplies this accumulator by an int.
+	 *
+	 * @param multiplier Multiplier, which may be negative
+	 * @return This accumulator
+	 */
+	public MutableBigInteger multiplyInPlace(int multiplier) {
+		if (multiplier == 0 || length == 0) {
+			Arrays.fill(limbs, 0, length, 0);
+			length = 0;
+			negative = false;
+			return this;
+		}
+		if (multiplier < 0) {
+			negative = !negative;
+		}
+		long factor = Math.abs((long) multiplier);
+
+		//The carry out of the top limb can take up to two more limbs
+		ensureCapacity(length + 2);
+		long carry = 0;
+		for (int i = 0; i < length; i++) {
+			long product = limbs[i] * factor + carry;
+			limbs[i] = (int) (product % BigInteger.BASE);
+			carry = product / BigInteger.BASE;
+		}
+		while (carry != 0) {
+			limbs[length++] = (int) (carry % BigInteger.BASE);
+			carry /= BigInteger.BASE;
+		}
+		return this;
+	}
+
+	/**
+	 * Shifts this accumulator by a number of decimal digits, i.e. multiplies it by
+	 * 10^digits for a positive count, or divides it by 10^-digits, rounding toward zero,
+	 * for a negative count.
+	 *
+	 * @param digits Number of decimal places to shift left by, or right by if negative
+	 * @return This accumulator
+	 */
+	public MutableBigInteger shift(int digits) {
+		if (length == 0 || digits == 0) {
+			return this;
+		}
+		if (digits > 0) {
+			int whole = digits / BigInteger.BASE_DIGITS;
+			ensureCapacity(length + whole + 1);
+			System.arraycopy(limbs, 0, limbs, whole, length);
+			Arrays.fill(limbs, 0, whole, 0);
+			length += whole;
+			int rest = digits % BigInteger.BASE_DIGITS;
+			if (rest != 0) {
+				multiplyInPlace(BigInteger.POWERS_OF_TEN[rest]);
+			}
+			return this;
+		}
+
+		//The count is negated as a long, since -Integer.MIN_VALUE does not fit in an int
+		long drop = -(long) digits;
+		if (drop >= (long) length * BigInteger.BASE_DIGITS) {
+			Arrays.fill(limbs, 0, length, 0);
+			length = 0;
+			negative = false;
+			return this;
+		}
+		int whole = (int) (drop / BigInteger.BASE_DIGITS);
+		System.arraycopy(limbs, whole, limbs, 0, length - whole);
+		Arrays.fill(limbs, length - whole, length, 0);
+		length -= whole;
+		int divisor = BigInteger.POWERS_OF_TEN[(int) (drop % BigInteger.BASE_DIGITS)];
+		if (divisor != 1) {
+			long remainder = 0;
+			for (int i = length - 1; i >= 0; i--) {
+				long current = remainder * BigInteger.BASE + limbs[i];
+				limbs[i] = (int) (current / divisor);
+				remainder = current % divisor;
+			}
+			length = BigInteger.significantLength(limbs, length);
+		}
+		if (length == 0) {
+			negative = false;
+		}
+		return this;
+	}
+
+	/**
+	 * Freezes the current value of this accumulator into an immutable BigInteger. This
+	 * copies the limbs in use once; the accumulator can go on being used afterwards.
+	 *
+	 * @return A new BigInteger with the value of this accumulator
+	 */
+	public BigInteger toBigInteger() {
+		return new BigInteger(negative, Arrays.copyOf(limbs, length));
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return toBigInteger().toString();
+	}
+
+//----------Private Helper Methods----------//
+
+	//This method grows the buffer, at least doubling it, so it holds the given number of limbs
+	private void ensureCapacity(int capacity) {
+		if (capacity > limbs.length) {
+			limbs = Arrays.copyOf(limbs, Math.max(capacity, limbs.length * 2));
+		}
+	}
+
+	//This method compares the magnitude of this accumulator with another magnitude
+	private int compareMagnitude(int[] other) {
+		if (length != other.length) {
+			return length < other.length ? -1 : 1;
+		}
+		for (int i = length - 1; i >= 0; i--) {
+			if (limbs[i] != other[i]) {
+				return limbs[i] < other[i] ? -1 : 1;
+			}
+		}
+		return 0;
+	}
+}
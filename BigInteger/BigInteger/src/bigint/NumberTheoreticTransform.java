@@ -0,0 +1,170 @@
+package bigint;
+
+/**
+ * This class multiplies very large BigInteger magnitudes with number theoretic transforms,
+ * in O(n log n) time.
+ *
+ * Each base 10^9 limb is cut into three base 1000 pieces, and the pieces of both operands
+ * are convolved modulo two NTT friendly primes. Every convolution term is below
+ * 2^23 * 999^2, which is well under the product of the primes, so the exact term is
+ * recovered with the Chinese remainder theorem. The arithmetic is integer only, so
+ * unlike a floating point FFT there is no rounding error to guard against.
+ *
+ */
+final class NumberTheoreticTransform {
+
+	/**
+	 * The two primes, both of the form c * 2^k + 1 with 3 as a primitive root
+	 */
+	private static final long FIRST_PRIME = 998244353L;		// 119 * 2^23 + 1
+	private static final long SECOND_PRIME = 469762049L;	// 7 * 2^26 + 1
+	private static final long PRIMITIVE_ROOT = 3;
+
+	/**
+	 * Inverse of the first prime modulo the second, used by the Chinese remainder step
+	 */
+	private static final long FIRST_PRIME_INVERSE = power(FIRST_PRIME % SECOND_PRIME, SECOND_PRIME - 2, SECOND_PRIME);
+
+	/**
+	 * Longest transform supported by both primes, in base 1000 pieces
+	 */
+	static final int MAX_LENGTH = 1 << 23;
+
+	/**
+	 * Base of the pieces that are convolved, and the number of pieces per limb
+	 */
+	private static final int PIECE = 1000;
+	private static final int PIECES_PER_LIMB = 3;
+
+	private NumberTheoreticTransform() {
+	}
+
+	/**
+	 * Tells if the product of two magnitudes of the given lengths fits in one transform.
+	 *
+	 * @param aLength Length of the first magnitude, in limbs
+	 * @param bLength Length of the second magnitude, in limbs
+	 * @return True if multiply can handle the operands
+	 */
+	static boolean fits(int aLength, int bLength) {
+		return (long) (aLength + bLength) * PIECES_PER_LIMB <= MAX_LENGTH;
+	}
+
+	/**
+	 * Multiplies two magnitudes, whose lengths must satisfy fits().
+	 *
+	 * @param a First magnitude
+	 * @param b Second magnitude
+	 * @return Product magnitude, which may have an insignificant top limb
+	 */
+	static int[] multiply(int[] a, int[] b) {
+		int productPieces = (a.length + b.length) * PIECES_PER_LIMB;
+		int size = Integer.highestOneBit(productPieces - 1) << 1;
+
+		long[] first = convolve(a, b, size, FIRST_PRIME);
+		long[] second = convolve(a, b, size, SECOND_PRIME);
+
+		//Recover every term from its two residues, then carry in base 1000 and repack
+		int[] result = new int[a.length + b.length];
+		long carry = 0;
+		for (int i = 0; i < productPieces; i++) {
+			long r1 = first[i];
+			long r2 = second[i];
+			long k = ((r2 - r1 % SECOND_PRIME + SECOND_PRIME) % SECOND_PRIME) * FIRST_PRIME_INVERSE % SECOND_PRIME;
+			long term = r1 + k * FIRST_PRIME + carry;
+			carry = term / PIECE;
+			result[i / PIECES_PER_LIMB] += (int) (term % PIECE) * BigInteger.POWERS_OF_TEN[(i % PIECES_PER_LIMB) * 3];
+		}
+		return result;
+	}
+
+//----------Private Helper Methods----------//
+
+	//This method returns the cyclic convolution of the pieces of a and b modulo a prime
+	private static long[] convolve(int[] a, int[] b, int size, long prime) {
+		long[] fa = toPieces(a, size);
+		long[] fb = toPieces(b, size);
+		transform(fa, prime, false);
+		transform(fb, prime, false);
+		for (int i = 0; i < size; i++) {
+			fa[i] = fa[i] * fb[i] % prime;
+		}
+		transform(fa, prime, true);
+		return fa;
+	}
+
+	//This method cuts a magnitude into base 1000 pieces, least significant first
+	private static long[] toPieces(int[] limbs, int size) {
+		long[] pieces = new long[size];
+		for (int i = 0; i < limbs.length; i++) {
+			int limb = limbs[i];
+			for (int j = 0; j < PIECES_PER_LIMB; j++) {
+				pieces[i * PIECES_PER_LIMB + j] = limb % PIECE;
+				limb /= PIECE;
+			}
+		}
+		return pieces;
+	}
+
+	//This method does an in place iterative transform, or its inverse, of a power of two length
+	private static void transform(long[] values, long prime, boolean inverse) {
+		int n = values.length;
+
+		//Bit reversal permutation
+		for (int i = 1, j = 0; i < n; i++) {
+			int bit = n >> 1;
+			for (; (j & bit) != 0; bit >>= 1) {
+				j ^= bit;
+			}
+			j ^= bit;
+			if (i < j) {
+				long swap = values[i];
+				values[i] = values[j];
+				values[j] = swap;
+			}
+		}
+
+		//Butterflies, doubling the block length every round
+		long[] roots = new long[n / 2];
+		for (int length = 2; length <= n; length <<= 1) {
+			long root = power(PRIMITIVE_ROOT, (prime - 1) / length, prime);
+			if (inverse) {
+				root = power(root, prime - 2, prime);
+			}
+			int half = length / 2;
+			roots[0] = 1;
+			for (int k = 1; k < half; k++) {
+				roots[k] = roots[k - 1] * root % prime;
+			}
+			for (int start = 0; start < n; start += length) {
+				for (int k = 0; k < half; k++) {
+					long u = values[start + k];
+					long v = values[start + k + half] * roots[k] % prime;
+					values[start + k] = u + v < prime ? u + v : u + v - prime;
+					values[start + k + half] = u - v >= 0 ? u - v : u - v + prime;
+				}
+			}
+		}
+
+		if (inverse) {
+			long scale = power(n, prime - 2, prime);
+			for (int i = 0; i < n; i++) {
+				values[i] = values[i] * scale % prime;
+			}
+		}
+	}
+
+	//This method computes base^exponent modulo a prime below 2^31
+	private static long power(long base, long exponent, long prime) {
+		long result = 1;
+		base %= prime;
+		while (exponent > 0) {
+			if ((exponent & 1) == 1) {
+				result = result * base % prime;
+			}
+			base = base * base % prime;
+			exponent >>= 1;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,147 @@
+package bigint;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class multiplies many factors together as a balanced product tree. The factors
+ * are split in halves, each half is multiplied recursively and the two results are
+ * multiplied last, so every multiplication is between operands of about the same size
+ * and the fast multiplication tiers get to do most of the work. A left fold over the
+ * factors would instead multiply an ever longer product by one short factor at a time,
+ * in quadratic time.
+ *
+ * Large halves are multiplied in parallel on the fork-join pool. All values here are
+ * magnitudes, the callers work out the sign.
+ *
+ */
+final class ProductTree {
+
+	/**
+	 * Number of factors that are multiplied one at a time into a single product
+	 */
+	private static final int LEAF_FACTORS = 32;
+
+	/**
+	 * Number of factors from which the two halves of a product are multiplied in parallel
+	 */
+	private static final int PARALLEL_FACTORS = 4096;
+
+	/**
+	 * The magnitude 1
+	 */
+	private static final int[] ONE = {1};
+
+	private ProductTree() {
+	}
+
+	/**
+	 * Multiplies the integers from..to, both included.
+	 *
+	 * @param from First factor, at least 1
+	 * @param to Last factor, at least from
+	 * @return Product magnitude
+	 */
+	static int[] product(long from, long to) {
+		return new Range(from, to).invoke();
+	}
+
+	/**
+	 * Multiplies the magnitudes of values[from..to).
+	 *
+	 * @param values Factors
+	 * @param from Index of the first factor
+	 * @param to Index after the last factor
+	 * @return Product magnitude
+	 */
+	static int[] product(BigInteger[] values, int from, int to) {
+		return new Values(values, from, to).invoke();
+	}
+
+	/**
+	 * Multiplies the consecutive integers from..to
+	 */
+	private static final class Range extends RecursiveTask<int[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long from;
+		private final long to;
+
+		Range(long from, long to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected int[] compute() {
+			long count = to - from + 1;
+			if (count <= LEAF_FACTORS) {
+
+				//Factors are packed together while their product still fits in one limb
+				int[] result = ONE;
+				long packed = 1;
+				for (int i = 0; i < count; i++) {
+					long k = from + i;
+					if (k >= BigInteger.BASE) {
+						result = Multiplication.multiply(result, BigInteger.valueOf(k).magnitude());
+					}
+					else if (packed * k < BigInteger.BASE) {
+						packed *= k;
+					}
+					else {
+						result = Division.multiplySmall(result, (int) packed);
+						packed = k;
+					}
+				}
+				return Division.multiplySmall(result, (int) packed);
+			}
+			long middle = from + count / 2;
+			Range low = new Range(from, middle - 1);
+			Range high = new Range(middle, to);
+			if (count < PARALLEL_FACTORS) {
+				return Multiplication.multiply(low.compute(), high.compute());
+			}
+			low.fork();
+			int[] highProduct = high.compute();
+			return Multiplication.multiply(low.join(), highProduct);
+		}
+	}
+
+	/**
+	 * Multiplies the magnitudes of values[from..to)
+	 */
+	private static final class Values extends RecursiveTask<int[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final BigInteger[] values;
+		private final int from;
+		private final int to;
+
+		Values(BigInteger[] values, int from, int to) {
+			this.values = values;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected int[] compute() {
+			int count = to - from;
+			if (count == 0) {
+				return ONE;
+			}
+			if (count == 1) {
+				return values[from].magnitude();
+			}
+			int middle = (from + to) >>> 1;
+			Values low = new Values(values, from, middle);
+			Values high = new Values(values, middle, to);
+			if (count < PARALLEL_FACTORS) {
+				return Multiplication.multiply(low.compute(), high.compute());
+			}
+			low.fork();
+			int[] highProduct = high.compute();
+			return Multiplication.multiply(low.join(), highProduct);
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package bigint;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class adds up many BigIntegers at once. Instead of propagating carries on every
+ * add, each limb position is accumulated in a long (carry-save), and carries are only
+ * resolved when the total is read. A limb is below 2^30, so a long column can take
+ * billions of limbs before it has to be normalized.
+ *
+ * Positive and negative values are accumulated separately, and subtracted at the end.
+ *
+ */
+final class Summation {
+
+	/**
+	 * Number of values that a parallel sum leaves to a single task
+	 */
+	static final int VALUES_PER_TASK = 1 << 13;
+
+	/**
+	 * Number of limbs a column can take before it could overflow a long
+	 */
+	private static final long MAX_DEFERRED = Long.MAX_VALUE / BigInteger.BASE - 1;
+
+	/**
+	 * Column sums for the positive values and for the negative values
+	 */
+	private long[] positive = new long[4];
+	private long[] negative = new long[4];
+
+	/**
+	 * Number of values added to each set of columns since they were last normalized
+	 */
+	private long positiveCount;
+	private long negativeCount;
+
+	/**
+	 * Adds a value to the running total.
+	 *
+	 * @param value Value to add
+	 */
+	void add(BigInteger value) {
+		int[] limbs = value.magnitude();
+		if (value.negative) {
+			if (++negativeCount == MAX_DEFERRED) {
+				negative = normalize(negative);
+				negativeCount = 1;
+			}
+			negative = ensureCapacity(negative, limbs.length);
+			addColumns(negative, limbs);
+		}
+		else {
+			if (++positiveCount == MAX_DEFERRED) {
+				positive = normalize(positive);
+				positiveCount = 1;
+			}
+			positive = ensureCapacity(positive, limbs.length);
+			addColumns(positive, limbs);
+		}
+	}
+
+	/**
+	 * Resolves the carries and returns the total of every value added so far.
+	 *
+	 * @return A new BigInteger with the total
+	 */
+	BigInteger total() {
+		return BigInteger.subtract(
+				new BigInteger(false, toLimbs(positive)),
+				new BigInteger(false, toLimbs(negative)));
+	}
+
+	/**
+	 * Adds up values[from..to) on the fork-join pool, splitting the range in halves until
+	 * it is at most VALUES_PER_TASK long.
+	 */
+	static final class Task extends RecursiveTask<BigInteger> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final BigInteger[] values;
+		private final int from;
+		private final int to;
+
+		Task(BigInteger[] values, int from, int to) {
+			this.values = values;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected BigInteger compute() {
+			if (to - from <= VALUES_PER_TASK) {
+				Summation sum = new Summation();
+				for (int i = from; i < to; i++) {
+					sum.add(values[i]);
+				}
+				return sum.total();
+			}
+			int middle = (from + to) >>> 1;
+			Task low = new Task(values, from, middle);
+			low.fork();
+			BigInteger high = new Task(values, middle, to).compute();
+			return BigInteger.add(low.join(), high);
+		}
+	}
+
+//----------Private Helper Methods----------//
+
+	//This method adds the limbs of a magnitude into columns, without carrying
+	private static void addColumns(long[] columns, int[] limbs) {
+		for (int i = 0; i < limbs.length; i++) {
+			columns[i] += limbs[i];
+		}
+	}
+
+	//This method grows the columns, at least doubling them, so they hold the given number of limbs
+	private static long[] ensureCapacity(long[] columns, int length) {
+		if (length > columns.length) {
+			return Arrays.copyOf(columns, Math.max(length, columns.length * 2));
+		}
+		return columns;
+	}
+
+	//This method carries every column into the next one, so each column holds a single limb again
+	private static long[] normalize(long[] columns) {
+		long carry = 0;
+		for (int i = 0; i < columns.length; i++) {
+			long value = columns[i] + carry;
+			columns[i] = value % BigInteger.BASE;
+			carry = value / BigInteger.BASE;
+		}
+		for (int i = columns.length; carry != 0; i++) {
+			columns = ensureCapacity(columns, i + 1);
+			columns[i] = carry % BigInteger.BASE;
+			carry /= BigInteger.BASE;
+		}
+		return columns;
+	}
+
+	//This method resolves the carries of a set of columns into a magnitude
+	private static int[] toLimbs(long[] columns) {
+		int[] limbs = new int[columns.length + 3];
+		long carry = 0;
+		int i = 0;
+		for (; i < columns.length; i++) {
+			long value = columns[i] + carry;
+			limbs[i] = (int) (value % BigInteger.BASE);
+			carry = value / BigInteger.BASE;
+		}
+		for (; carry != 0; i++) {
+			limbs[i] = (int) (carry % BigInteger.BASE);
+			carry /= BigInteger.BASE;
+		}
+		return limbs;
+	}
+}
@@ -0,0 +1,254 @@
+package app;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is a non-interactive counterpart of Evaluator, for running large batches of
+ * expressions from scripts. It reads one expression per line, evaluates them concurrently
+ * on a fixed pool of threads, and writes one result per line in the order the expressions
+ * were read. A line that cannot be evaluated gives "error: " and the reason instead.
+ *
+ * Every expression is evaluated against the same variables, loaded once from any number
+ * of variable files in the format of loadVariableValues. Variables that are in none of
+ * the files are zero, as they are in Evaluator.
+ *
+ * Only a bounded number of expressions are in flight at a time, so results are streamed
+ * out as they complete and memory use does not grow with the size of the batch. When the
+ * batch is done, the number of expressions, errors, throughput and latencies are printed
+ * to standard error. The latency of an expression runs from when it is read to when its
+ * result is written, so it includes the time spent waiting for a thread and for the
+ * results of earlier expressions.
+ *
+ * Usage: java app.BatchEvaluator [-threads n] expressionsFile|- [variablesFile ...]
+ *
+ */
+public class BatchEvaluator {
+
+	/**
+	 * Number of expressions in flight per thread
+	 */
+	private static final int IN_FLIGHT_PER_THREAD = 64;
+
+	/**
+	 * Shared variables and arrays, by name
+	 */
+	private final HashMap<String, Variable> varsByName = new HashMap<String, Variable>();
+	private final HashMap<String, Array> arraysByName = new HashMap<String, Array>();
+
+	private final int threads;
+
+	/**
+	 * Counters, latencies in nanoseconds
+	 */
+	private final AtomicLong evaluated = new AtomicLong();
+	private final AtomicLong errors = new AtomicLong();
+	private final AtomicLong totalLatency = new AtomicLong();
+	private final AtomicLong maxLatency = new AtomicLong();
+
+	/**
+	 * An expression in flight, with the time it was submitted
+	 */
+	private static final class Submitted {
+		final Future<String> result;
+		final long start;
+
+		Submitted(Future<String> result, long start) {
+			this.result = result;
+			this.start = start;
+		}
+	}
+
+	/**
+	 * Marks the end of the input for the thread that writes results
+	 */
+	private static final Submitted END = new Submitted(null, 0);
+
+	/**
+	 * Initializes with no variables.
+	 *
+	 * @param threads Number of threads to evaluate on
+	 */
+	public BatchEvaluator(int threads) {
+		this.threads = threads;
+	}
+
+	public static void main(String[] args) throws IOException {
+		int threads = Runtime.getRuntime().availableProcessors();
+		int arg = 0;
+		if (args.length > 1 && args[0].equals("-threads")) {
+			threads = Integer.parseInt(args[1]);
+			arg = 2;
+		}
+		if (arg >= args.length) {
+			System.err.println("Usage: java app.BatchEvaluator [-threads n] expressionsFile|- [variablesFile ...]");
+			System.exit(1);
+		}
+		BatchEvaluator batch = new BatchEvaluator(threads);
+		for (int i = arg + 1; i < args.length; i++) {
+			batch.loadVariables(new File(args[i]));
+		}
+		BufferedReader in = args[arg].equals("-")
+				? new BufferedReader(new InputStreamReader(System.in))
+				: new BufferedReader(new FileReader(args[arg]));
+		PrintWriter out = new PrintWriter(System.out, true);
+		long start = System.nanoTime();
+		try {
+			batch.run(in, out);
+		}
+		finally {
+			in.close();
+			out.flush();
+		}
+		batch.printCounters(System.nanoTime() - start);
+	}
+
+	/**
+	 * Loads every variable and array of a variable file, in the format of
+	 * loadVariableValues. A name that is in more than one file gets the value from the
+	 * last one loaded.
+	 *
+	 * @param file Variable file
+	 * @throws IOException If there is a problem reading the file
+	 */
+	public void loadVariables(File file)
+	throws IOException {
+
+		//Every name in the file is added to the lists as it is loaded
+		ArrayList<Variable> vars = new ArrayList<Variable>();
+		ArrayList<Array> arrays = new ArrayList<Array>();
+		new VariableLoader(vars, arrays, true).load(file);
+		for (Variable var : vars) {
+			varsByName.put(var.name, var);
+		}
+		for (Array arr : arrays) {
+			arraysByName.put(arr.name, arr);
+		}
+	}
+
+	/**
+	 * Evaluates every line of the input as an expression, and writes the results to the
+	 * output in the same order. Blank lines are skipped.
+	 *
+	 * @param in Expressions, one per line
+	 * @param out Results, one per line
+	 * @throws IOException If there is a problem reading the input
+	 */
+	public void run(BufferedReader in, final PrintWriter out)
+	throws IOException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+		//Results are written by their own thread as soon as they are done, in order, so
+		//they do not wait for more input to be read. Once the queue is full, reading waits.
+		final BlockingQueue<Submitted> pending = new ArrayBlockingQueue<Submitted>(threads * IN_FLIGHT_PER_THREAD);
+		Thread writer = new Thread(new Runnable() {
+			public void run() {
+				try {
+					for (Submitted submitted = pending.take(); submitted != END; submitted = pending.take()) {
+						write(submitted, out);
+					}
+				}
+				catch (InterruptedException e) {
+					//Reading failed, nothing more is written
+				}
+			}
+		}, "BatchEvaluator writer");
+		writer.start();
+		try {
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.trim().length() == 0) {
+					continue;
+				}
+				final String expr = line;
+				long start = System.nanoTime();
+				pending.put(new Submitted(pool.submit(new Callable<String>() {
+					public String call() {
+						return evaluate(expr);
+					}
+				}), start));
+			}
+			pending.put(END);
+			writer.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while evaluating");
+		}
+		finally {
+			writer.interrupt();
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Prints the counters of the expressions run so far to standard error.
+	 *
+	 * @param elapsed Wall clock time of the batch in nanoseconds
+	 */
+	public void printCounters(long elapsed) {
+		long count = evaluated.get();
+		System.err.printf("expressions=%d errors=%d threads=%d elapsed=%.1fms throughput=%.1f/s " +
+				"latency.mean=%.1fus latency.max=%.1fus%n",
+				count, errors.get(), threads, elapsed / 1e6,
+				count * 1e9 / Math.max(elapsed, 1),
+				count == 0 ? 0 : totalLatency.get() / 1e3 / count,
+				maxLatency.get() / 1e3);
+	}
+
+//----------Private Helper Methods----------//
+
+	//This method compiles and evaluates one expression against the shared variables, and counts it if it fails
+	private String evaluate(String expr) {
+		String result;
+		try {
+			CompiledExpression compiled = Expression.compile(expr);
+			Bindings bindings = compiled.bind(varsByName, arraysByName, true);
+			result = Float.toString(Expression.evaluate(compiled, bindings));
+		}
+		catch (RuntimeException e) {
+			errors.incrementAndGet();
+			result = "error: " + e;
+		}
+		return result;
+	}
+
+	//This method waits for the result of an expression, writes it, and records its latency
+	private void write(Submitted submitted, PrintWriter out)
+	throws InterruptedException {
+		out.println(result(submitted.result));
+		long latency = System.nanoTime() - submitted.start;
+		evaluated.incrementAndGet();
+		totalLatency.addAndGet(latency);
+		long max;
+		while (latency > (max = maxLatency.get()) && !maxLatency.compareAndSet(max, latency)) {
+		}
+	}
+
+	//This method waits for the result of an expression. Errors, like a stack overflow, that evaluate does not catch are counted here.
+	private String result(Future<String> future)
+	throws InterruptedException {
+		try {
+			return future.get();
+		}
+		catch (ExecutionException e) {
+			errors.incrementAndGet();
+			return "error: " + e.getCause();
+		}
+	}
+}
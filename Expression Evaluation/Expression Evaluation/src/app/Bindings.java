@@ -0,0 +1,104 @@
+package app;
+
+import structures.FloatStack;
+
+/**
+ * This class holds the values of the variables and arrays of a compiled expression, by
+ * slot number. Values can be changed between evaluations, so the same bindings can be
+ * reused to evaluate an expression over and over. Bindings also hold the operand stack
+ * and temporaries that evaluation runs on, so they should not be shared between threads.
+ *
+ * Every change made through this class moves the bindings to a new version, which is
+ * what a ResultCache keys its results on.
+ *
+ */
+public class Bindings {
+
+	/**
+	 * Values of the variables, by slot
+	 */
+	final int[] values;
+
+	/**
+	 * Values of the arrays, by slot
+	 */
+	final int[][] arrays;
+
+	/**
+	 * Operand stack for evaluating with these bindings, reused by every evaluation
+	 */
+	final FloatStack stack = new FloatStack();
+
+	/**
+	 * Temporaries for evaluating with these bindings, grown to the largest number needed
+	 */
+	private float[] temps = new float[0];
+
+	/**
+	 * Number of changes made to these bindings
+	 */
+	private long version;
+
+	/**
+	 * Initializes with all variables zero and all arrays null.
+	 *
+	 * @param variableCount Number of variable slots
+	 * @param arrayCount Number of array slots
+	 */
+	public Bindings(int variableCount, int arrayCount) {
+		values = new int[variableCount];
+		arrays = new int[arrayCount][];
+	}
+
+	/**
+	 * Sets the value of a variable.
+	 *
+	 * @param slot Slot of the variable, from CompiledExpression.variableSlot
+	 * @param value Value
+	 */
+	public void setVariable(int slot, int value) {
+		values[slot] = value;
+		version++;
+	}
+
+	/**
+	 * Sets the values of an array. The array is not copied.
+	 *
+	 * @param slot Slot of the array, from CompiledExpression.arraySlot
+	 * @param items Values of the array items
+	 */
+	public void setArray(int slot, int[] items) {
+		arrays[slot] = items;
+		version++;
+	}
+
+	/**
+	 * Moves these bindings to a new version, after the items of an array were changed in
+	 * place, so that results cached for the old values are not used.
+	 */
+	public void markChanged() {
+		version++;
+	}
+
+	/**
+	 * Returns the version of these bindings, which changes whenever a value does.
+	 *
+	 * @return Version
+	 */
+	public long version() {
+		return version;
+	}
+
+	/**
+	 * Returns the temporaries, with room for at least the given number of them.
+	 *
+	 * @param count Number of temporaries
+	 * @return Temporaries
+	 */
+	float[] temps(int count) {
+		if (temps.length < count) {
+			temps = new float[count];
+		}
+		return temps;
+	}
+}
@@ -0,0 +1,179 @@
+package app;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * This class evaluates a compiled expression over many rows of variable values at once.
+ * Values come in columns, one int[] per variable, and the code is run a block of rows
+ * at a time: every stack entry holds a whole block of values, so each instruction is
+ * decoded once per block and then applied in a plain loop over the rows.
+ *
+ */
+final class ColumnEvaluator {
+
+	/**
+	 * Number of rows evaluated together
+	 */
+	private static final int BLOCK_ROWS = 256;
+
+	/**
+	 * Number of rows a parallel evaluation leaves to a single task
+	 */
+	private static final int ROWS_PER_TASK = 1 << 14;
+
+	private final CompiledExpression compiled;
+	private final Bindings bindings;
+
+	/**
+	 * Columns of the variables, by slot, null for variables that take their value from the bindings
+	 */
+	private final int[][] columns;
+
+	/**
+	 * Resolves the columns of a compiled expression by name.
+	 *
+	 * @param compiled The compiled expression
+	 * @param columns Values of variables by name, one per row
+	 * @param bindings Values of the arrays, and of the variables that have no column
+	 * @param rows Number of rows
+	 * @throws IllegalArgumentException If a column has fewer than rows values
+	 */
+	ColumnEvaluator(CompiledExpression compiled, Map<String, int[]> columns, Bindings bindings, int rows)
+	throws IllegalArgumentException {
+		this.compiled = compiled;
+		this.bindings = bindings;
+		this.columns = new int[compiled.variables.size()][];
+		for (Map.Entry<String, int[]> column : columns.entrySet()) {
+			int slot = compiled.variables.slotOf(column.getKey());
+			if (slot == -1) {
+				continue;
+			}
+			if (column.getValue().length < rows) {
+				throw new IllegalArgumentException("Column " + column.getKey() + " has fewer than " + rows + " values");
+			}
+			this.columns[slot] = column.getValue();
+		}
+	}
+
+	/**
+	 * Evaluates rows from..to into results[from..to).
+	 *
+	 * @param from First row
+	 * @param to Row after the last one
+	 * @param results Results, by row
+	 */
+	void evaluate(int from, int to, float[] results) {
+		float[][] stack = new float[Math.max(compiled.maxDepth, 1)][BLOCK_ROWS];
+		float[][] temps = new float[compiled.tempCount][BLOCK_ROWS];
+		for (int start = from; start < to; start += BLOCK_ROWS) {
+			int count = Math.min(BLOCK_ROWS, to - start);
+			evaluateBlock(start, count, stack, temps);
+			System.arraycopy(stack[0], 0, results, start, count);
+		}
+	}
+
+	/**
+	 * Evaluates rows from..to into results[from..to), splitting the rows across the
+	 * common fork-join pool.
+	 *
+	 * @param from First row
+	 * @param to Row after the last one
+	 * @param results Results, by row
+	 */
+	void parallelEvaluate(final int from, final int to, final float[] results) {
+		int tasks = (to - from + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+		IntStream.range(0, tasks).parallel().forEach(task -> {
+			int start = from + task * ROWS_PER_TASK;
+			evaluate(start, Math.min(start + ROWS_PER_TASK, to), results);
+		});
+	}
+
+//----------Private Helper Methods----------//
+
+	//This method runs the code on count rows starting at row start, leaving the results in stack[0]
+	private void evaluateBlock(int start, int count, float[][] stack, float[][] temps) {
+		int[] code = compiled.code;
+		int top = -1;
+		int pc = 0;
+		while (pc < code.length) {
+			int opcode = code[pc++];
+			switch (opcode) {
+			case CompiledExpression.CONSTANT: {
+				float value = compiled.constants[code[pc++]];
+				float[] target = stack[++top];
+				for (int i = 0; i < count; i++) {
+					target[i] = value;
+				}
+				break;
+			}
+			case CompiledExpression.VARIABLE: {
+				int slot = code[pc++];
+				float[] target = stack[++top];
+				int[] column = columns[slot];
+				if (column == null) {
+					float value = bindings.values[slot];
+					for (int i = 0; i < count; i++) {
+						target[i] = value;
+					}
+				}
+				else {
+					for (int i = 0; i < count; i++) {
+						target[i] = column[start + i];
+					}
+				}
+				break;
+			}
+			case CompiledExpression.ARRAY: {
+				int[] items = bindings.arrays[code[pc++]];
+				float[] target = stack[top];
+				for (int i = 0; i < count; i++) {
+					target[i] = items[(int) target[i]];
+				}
+				break;
+			}
+			case CompiledExpression.ELEMENT: {
+				float value = bindings.arrays[code[pc++]][code[pc++]];
+				float[] target = stack[++top];
+				for (int i = 0; i < count; i++) {
+					target[i] = value;
+				}
+				break;
+			}
+			case CompiledExpression.STORE:
+				System.arraycopy(stack[top], 0, temps[code[pc++]], 0, count);
+				break;
+			case CompiledExpression.LOAD:
+				System.arraycopy(temps[code[pc++]], 0, stack[++top], 0, count);
+				break;
+			default: {
+				float[] second = stack[top--];
+				float[] first = stack[top];
+				switch (opcode) {
+				case CompiledExpression.ADD:
+					for (int i = 0; i < count; i++) {
+						first[i] += second[i];
+					}
+					break;
+				case CompiledExpression.SUBTRACT:
+					for (int i = 0; i < count; i++) {
+						first[i] -= second[i];
+					}
+					break;
+				case CompiledExpression.MULTIPLY:
+					for (int i = 0; i < count; i++) {
+						first[i] *= second[i];
+					}
+					break;
+				default:
+					for (int i = 0; i < count; i++) {
+						first[i] /= second[i];
+					}
+					break;
+				}
+				break;
+			}
+			}
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package app;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class holds an expression that has been parsed once by Expression.compile, as
+ * postfix code for a small stack machine. Variables and arrays are not looked up by
+ * name while evaluating; each one is given a slot number when the expression is
+ * compiled, and its value is read from that slot of a Bindings object.
+ *
+ * The code is a sequence of ints. Every instruction is an opcode, and all but the
+ * operators are followed by one operand, or two for ELEMENT:
+ *    CONSTANT i   pushes constants[i]
+ *    VARIABLE s   pushes the value of variable slot s
+ *    ARRAY s      pops an index, and pushes that item of array slot s
+ *    ELEMENT s i  pushes item i of array slot s, for an index known when compiling
+ *    STORE t      copies the top value to temporary t, for a subexpression used again later
+ *    LOAD t       pushes temporary t
+ *    ADD, SUBTRACT, MULTIPLY, DIVIDE   pop two values, and push the result
+ *
+ */
+public class CompiledExpression {
+
+	/**
+	 * Opcodes
+	 */
+	static final int CONSTANT = 0;
+	static final int VARIABLE = 1;
+	static final int ARRAY = 2;
+	static final int ADD = 3;
+	static final int SUBTRACT = 4;
+	static final int MULTIPLY = 5;
+	static final int DIVIDE = 6;
+	static final int STORE = 7;
+	static final int LOAD = 8;
+	static final int ELEMENT = 9;
+
+	/**
+	 * The expression text this was compiled from
+	 */
+	final String source;
+
+	/**
+	 * Postfix code
+	 */
+	final int[] code;
+
+	/**
+	 * Constants, by the operand of CONSTANT
+	 */
+	final float[] constants;
+
+	/**
+	 * Slots of the variables
+	 */
+	final SymbolTable variables;
+
+	/**
+	 * Slots of the arrays
+	 */
+	final SymbolTable arrays;
+
+	/**
+	 * Largest number of values on the stack at any point of the code
+	 */
+	final int maxDepth;
+
+	/**
+	 * Number of temporaries used by STORE and LOAD
+	 */
+	final int tempCount;
+
+	CompiledExpression(String source, int[] code, float[] constants,
+			SymbolTable variables, SymbolTable arrays, int maxDepth, int tempCount) {
+		this.source = source;
+		this.code = code;
+		this.constants = constants;
+		this.variables = variables;
+		this.arrays = arrays;
+		this.maxDepth = maxDepth;
+		this.tempCount = tempCount;
+	}
+
+	/**
+	 * Returns the slot of a variable of this expression.
+	 *
+	 * @param name Variable name
+	 * @return Slot of the variable, or -1 if the expression does not use it
+	 */
+	public int variableSlot(String name) {
+		return variables.slotOf(name);
+	}
+
+	/**
+	 * Returns the slot of an array of this expression.
+	 *
+	 * @param name Array name
+	 * @return Slot of the array, or -1 if the expression does not use it
+	 */
+	public int arraySlot(String name) {
+		return arrays.slotOf(name);
+	}
+
+	/**
+	 * Resolves the variables and arrays of this expression against the lists filled in by
+	 * makeVariableLists and loadVariableValues, once, so that evaluating needs no lookups.
+	 * Variable values are copied, while arrays are shared with the Array objects.
+	 *
+	 * @param vars The variables array list
+	 * @param arrays The arrays array list
+	 * @return Bindings with a value for every slot of this expression
+	 * @throws IllegalArgumentException If a variable or array of the expression is not in the lists
+	 */
+	public Bindings bind(ArrayList<Variable> vars, ArrayList<Array> arrays)
+	throws IllegalArgumentException {
+		HashMap<String, Variable> varsByName = new HashMap<String, Variable>();
+		for (Variable var : vars) {
+			varsByName.put(var.name, var);
+		}
+		HashMap<String, Array> arraysByName = new HashMap<String, Array>();
+		for (Array arr : arrays) {
+			arraysByName.put(arr.name, arr);
+		}
+		return bind(varsByName, arraysByName, false);
+	}
+
+	/**
+	 * Resolves the variables and arrays of this expression against variables and arrays
+	 * looked up by name, like bind(vars, arrays), optionally leaving the variables that
+	 * are not given at zero.
+	 *
+	 * @param varsByName Variables, by name
+	 * @param arraysByName Arrays, by name
+	 * @param missingAreZero True to leave variables that are not in varsByName at zero, false to reject them
+	 * @return Bindings with a value for every slot of this expression
+	 * @throws IllegalArgumentException If an array of the expression is not given, or a variable
+	 * is not given and missingAreZero is false
+	 */
+	public Bindings bind(Map<String, Variable> varsByName, Map<String, Array> arraysByName, boolean missingAreZero)
+	throws IllegalArgumentException {
+		Bindings bindings = new Bindings(this.variables.size(), this.arrays.size());
+		for (int slot = 0; slot < this.variables.size(); slot++) {
+			Variable var = varsByName.get(this.variables.nameOf(slot));
+			if (var != null) {
+				bindings.setVariable(slot, var.value);
+			}
+			else if (!missingAreZero) {
+				throw new IllegalArgumentException("No value for variable " + this.variables.nameOf(slot));
+			}
+		}
+		for (int slot = 0; slot < this.arrays.size(); slot++) {
+			Array arr = arraysByName.get(this.arrays.nameOf(slot));
+			if (arr == null) {
+				throw new IllegalArgumentException("No values for array " + this.arrays.nameOf(slot));
+			}
+			bindings.setArray(slot, arr.values);
+		}
+		return bindings;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return source;
+	}
+}
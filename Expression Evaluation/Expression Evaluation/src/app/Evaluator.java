@@ -25,8 +25,7 @@ public class Evaluator {
 			System.out.print("Enter variable values file name, or hit return if no variables => ");
 			String fname = sc.nextLine();
 			if (fname.length() != 0) {
-				Scanner scfile = new Scanner(new File(fname));
-				Expression.loadVariableValues(scfile, vars, arrays);
+				Expression.loadVariableValues(new File(fname), vars, arrays);
 			}
 			System.out.println("Value of expression = " + Expression.evaluate(expr,vars,arrays));
 		}
@@ -2,8 +2,8 @@ package app;
 
 import java.io.*;
 import java.util.*;
-import java.util.regex.*;
 
+import structures.FloatStack;
 import structures.Stack;
 
 public class Expression {
@@ -28,8 +28,15 @@ public class Expression {
     	 ** to this method - you just need to fill them in.
     	 **/
     	
-    	//takes care of all the spaces
-    	expr = expr.replaceAll(" ", ""); 
+    	//Names already in the lists, so that each one is added once with a hash lookup
+    	HashSet<String> varNames = new HashSet<String>();
+    	for (Variable var : vars) {
+    		varNames.add(var.name);
+    	}
+    	HashSet<String> arrayNames = new HashSet<String>();
+    	for (Array arr : arrays) {
+    		arrayNames.add(arr.name);
+    	}
     	
     	//We are going to separate the string using the stringtokenizer
     	StringTokenizer str = new StringTokenizer(expr, delims, true);
@@ -43,7 +50,6 @@ public class Expression {
     	//loop through tokens
     	while(str.hasMoreTokens()) {
     		token = str.nextToken();
-    		System.out.println(token);
     		
     		//add token to stack if it is a letter or a open bracket
     		if (Character.isLetter(token.charAt(0)) || token.charAt(0) == '[')  {
@@ -58,30 +64,15 @@ public class Expression {
     	while (wordHolder.isEmpty() != true) {
     		popHolder = wordHolder.pop();
     		
-    		System.out.print("Current popped character:");
-    		System.out.println(popHolder);
-    		
-    		//.pop takes one away from size
-    		if (popHolder.equals("[")) { //you could have done this "if (!(wordHolder.pop().equals("[")))" to see if string did not equal [ 
-    			Array myArr = new Array(wordHolder.pop()); //arraylist holds same myArr?
-    			
-    			if (arrays.contains(myArr) == true) { //check to see if this variable is already in the arraylist called arrays
-    				continue;
-    			}
-    			else {
-    				arrays.add(myArr); //add to the arraylist called arrays an object of Array called myArr. Passing in reference
+    		//An open bracket means the name before it is an array
+    		if (popHolder.equals("[")) {
+    			String name = wordHolder.pop();
+    			if (arrayNames.add(name)) {
+    				arrays.add(new Array(name));
     			}
     		}
-    		else {
-    			
-    			Variable myVar = new Variable(popHolder);
-    			
-    			if (vars.contains(myVar) == true) {
-    				continue;
-    			}
-    			else {
-    				vars.add(myVar);
-    			}
+    		else if (varNames.add(popHolder)) {
+    			vars.add(new Variable(popHolder));
     		}
     	}
     }
@@ -97,22 +88,29 @@ public class Expression {
     public static void 
     loadVariableValues(Scanner sc, ArrayList<Variable> vars, ArrayList<Array> arrays) 
     throws IOException {
+    	
+    	//Index the lists by name once, instead of searching them for every line
+    	HashMap<String, Variable> varsByName = new HashMap<String, Variable>();
+    	for (Variable var : vars) {
+    		varsByName.put(var.name, var);
+    	}
+    	HashMap<String, Array> arraysByName = new HashMap<String, Array>();
+    	for (Array arr : arrays) {
+    		arraysByName.put(arr.name, arr);
+    	}
         while (sc.hasNextLine()) {
             StringTokenizer st = new StringTokenizer(sc.nextLine().trim());
             int numTokens = st.countTokens();
             String tok = st.nextToken();
-            Variable var = new Variable(tok);
-            Array arr = new Array(tok);
-            int vari = vars.indexOf(var);
-            int arri = arrays.indexOf(arr);
-            if (vari == -1 && arri == -1) {
+            Variable var = varsByName.get(tok);
+            Array arr = arraysByName.get(tok);
+            if (var == null && arr == null) {
             	continue;
             }
             int num = Integer.parseInt(st.nextToken());
-            if (numTokens == 2) { // scalar currentSymbol
-                vars.get(vari).value = num;
-            } else { // array currentSymbol
-            	arr = arrays.get(arri);
+            if (numTokens == 2 && var != null) { // scalar currentSymbol
+                var.value = num;
+            } else if (arr != null) { // array currentSymbol
             	arr.values = new int[num];
                 // following are (index,val) pairs
                 while (st.hasMoreTokens()) {
@@ -127,7 +125,139 @@ public class Expression {
     }
     
     /**
-     * Evaluates the expression.
+     * Loads values for variables and arrays in the expression from a variable file. The
+     * file is memory mapped and parsed straight from its bytes, which is much faster than
+     * loadVariableValues(Scanner, ...) for large files.
+     * 
+     * @param file Variable values file
+     * @param vars The variables array list, previously populated by makeVariableLists
+     * @param arrays The arrays array list - previously populated by makeVariableLists
+     * @throws IOException If there is a problem reading the file, or it is incorrectly formatted
+     */
+    public static void 
+    loadVariableValues(File file, ArrayList<Variable> vars, ArrayList<Array> arrays) 
+    throws IOException {
+    	new VariableLoader(vars, arrays, false).load(file);
+    }
+    
+    /**
+     * Loads values for variables and arrays in the expression from a stream of a variable
+     * file, like loadVariableValues(File, ...).
+     * 
+     * @param in Stream of variable values, which is not closed
+     * @param vars The variables array list, previously populated by makeVariableLists
+     * @param arrays The arrays array list - previously populated by makeVariableLists
+     * @throws IOException If there is a problem reading the stream, or it is incorrectly formatted
+     */
+    public static void 
+    loadVariableValues(InputStream in, ArrayList<Variable> vars, ArrayList<Array> arrays) 
+    throws IOException {
+    	new VariableLoader(vars, arrays, false).load(in);
+    }
+    
+    /**
+     * Compiles the expression into postfix code, with a slot for each variable and array
+     * in it. The compiled expression can then be evaluated any number of times with
+     * evaluate(CompiledExpression, Bindings), without parsing the text again.
+     * 
+     * @param expr The expression
+     * @return Compiled expression
+     * @throws IllegalArgumentException If the expression is incorrectly formatted
+     */
+    public static CompiledExpression 
+    compile(String expr) 
+    throws IllegalArgumentException {
+    	return new ExpressionCompiler(expr).compile();
+    }
+    
+    /**
+     * Evaluates a compiled expression.
+     * 
+     * @param compiled The compiled expression
+     * @param bindings Values for the variables and arrays of the expression, by slot
+     * @return Result of evaluation
+     */
+    public static float 
+    evaluate(CompiledExpression compiled, Bindings bindings) {
+    	int[] code = compiled.code;
+    	FloatStack values = bindings.stack;
+    	values.clear();
+    	float[] temps = bindings.temps(compiled.tempCount);
+    	int pc = 0;
+    	while (pc < code.length) {
+    		switch (code[pc++]) {
+    		case CompiledExpression.CONSTANT:
+    			values.push(compiled.constants[code[pc++]]);
+    			break;
+    		case CompiledExpression.VARIABLE:
+    			values.push(bindings.values[code[pc++]]);
+    			break;
+    		case CompiledExpression.ARRAY:
+    			int index = (int) values.pop();
+    			values.push(bindings.arrays[code[pc++]][index]);
+    			break;
+    		case CompiledExpression.ELEMENT:
+    			int[] items = bindings.arrays[code[pc++]];
+    			values.push(items[code[pc++]]);
+    			break;
+    		case CompiledExpression.STORE:
+    			temps[code[pc++]] = values.peek();
+    			break;
+    		case CompiledExpression.LOAD:
+    			values.push(temps[code[pc++]]);
+    			break;
+    		default:
+    			float second = values.pop();
+    			float first = values.pop();
+    			values.push(apply(code[pc - 1], first, second));
+    			break;
+    		}
+    	}
+    	return values.pop();
+    }
+    
+    /**
+     * Evaluates a compiled expression over many rows of values, given as one column of
+     * values per variable. This runs much faster than evaluating row by row, since the
+     * code is decoded once per block of rows and applied to the whole block in a loop.
+     * 
+     * @param compiled The compiled expression
+     * @param columns Values of variables by name, with at least rows values each
+     * @param bindings Values of the arrays, and of the variables that have no column
+     * @param rows Number of rows
+     * @return Result of evaluation, by row
+     * @throws IllegalArgumentException If a column has fewer than rows values
+     */
+    public static float[] 
+    evaluateColumns(CompiledExpression compiled, Map<String, int[]> columns, Bindings bindings, int rows) 
+    throws IllegalArgumentException {
+    	float[] results = new float[rows];
+    	new ColumnEvaluator(compiled, columns, bindings, rows).evaluate(0, rows, results);
+    	return results;
+    }
+    
+    /**
+     * Evaluates a compiled expression over many rows of values like evaluateColumns,
+     * splitting the rows across the common fork-join pool.
+     * 
+     * @param compiled The compiled expression
+     * @param columns Values of variables by name, with at least rows values each
+     * @param bindings Values of the arrays, and of the variables that have no column
+     * @param rows Number of rows
+     * @return Result of evaluation, by row
+     * @throws IllegalArgumentException If a column has fewer than rows values
+     */
+    public static float[] 
+    parallelEvaluateColumns(CompiledExpression compiled, Map<String, int[]> columns, Bindings bindings, int rows) 
+    throws IllegalArgumentException {
+    	float[] results = new float[rows];
+    	new ColumnEvaluator(compiled, columns, bindings, rows).parallelEvaluate(0, rows, results);
+    	return results;
+    }
+    
+    /**
+     * Evaluates the expression. It is compiled first, so an expression that is evaluated
+     * many times should be compiled once with compile() instead.
      * 
      * @param vars The variables array list, with values for all variables in the expression
      * @param arrays The arrays array list, with values for all array items
@@ -135,243 +265,23 @@ public class Expression {
      */
     public static float 
     evaluate(String expr, ArrayList<Variable> vars, ArrayList<Array> arrays) {
-    	
-    	//FYI: remember that when you first tried to set your string variables to null, the result gave you a null pointer exception
-    	
-    	//This takes out all of the spaces in the expression 
-    	expr = expr.replaceAll(" ", ""); 		
-    	
-    	//Set answer to 0
-    	float answer = 0;
-    	
-    	//Turns expression into a stringtokenizer
-    	StringTokenizer wordHolder = new StringTokenizer(expr, delims, true);
-    	
-    	//Points to current token
-    	String currentToken = "";
-    	
-    	//This holds the current symbol and the temporary symbol Example: +, -, *, /
-    	char operation = '\0';		//ask what this does?  why didnt it work when you did ' '
-    	Character tempOperation = '\0';
-    	
-    	//This is used to make sure operations is an operation symbol
-    	String validOperations = "+-*/";
-    	
-    	//Holds one of the numbers that will be worked on. Example 1: 
-    	String num = ""; 											//change variables
-    	String num2 = "";
-    	float number = 0; //This holds the index number
-    	String tempNumber = ""; //This will hold the number that will be worked on last 
-    	
-    	//This will account for any type of subexpression inside the brackets recursively 
-  	  	while (wordHolder.hasMoreTokens()) {
-  	  		
-  	  		//This will hold the next token
-		  	currentToken = wordHolder.nextToken();
-		  	
-		  	System.out.print("Current token being looked at: ");
-		  	System.out.println(currentToken);
-		  	
-		  	if(currentToken.charAt(0) == '[') {
-		  		
-		  		//We are calling in our private method to get the subexpression when we encounter an open bracket
-		  		number = evaluateSubExp('[', ']', wordHolder, vars, arrays);
-		  		
-		  		//Since num2 equals an empty string than we can 
-		  		if (num2.equals("")) {
-		  			for(int i = 0; i < arrays.size(); i++){
-		  				if (arrays.get(i).name.equals(num)) {
-		  					num = arrays.get(i).values[(int)number] + "";
-		  					break;
-		  				}
-		  			}
-		  		}
-		  		else {
-		  			for (int i = 0; i < arrays.size(); i++) {
-		  				if (arrays.get(i).name.equals(num2)) {
-		  					num2 = arrays.get(i).values[(int)number] + "";
-		  					break;
-		  				}
-		  			}
-		  		}
-		  	} //end of if one line 178
-		  	else if (currentToken.charAt(0) == '(') {
-		  		
-		  		//We are calling in our private method to get the subexpression when we encounter an open parenthesis
-		  		if (num.equals("")) {
-		  			num = evaluateSubExp('(', ')', wordHolder, vars, arrays) + "";
-		  		}
-		  		else {
-		  			num2 = evaluateSubExp('(', ')', wordHolder, vars, arrays) + "";
-		  		}
-		  	} //end of else if on line 220
-		  	else if (Character.isLetter(currentToken.charAt(0)) == true) { //^^^^
-		  		if (num.equals("")) {
-		  			num = currentToken;
-		  		}
-		  		else {
-		  			num2 = currentToken;
-		  		}
-		  	}															  //^^^^
-		  	else if (validOperations.indexOf(currentToken.charAt(0)) >= 0) {
-		  		
-		  		if (operation == '\0'){ 
-		  			operation = currentToken.charAt(0);
-		  		}
-		  		else{																				//@@@@@
-		  			
-		  			//This changes variable into a number string
-		  			if (Character.isLetter(num.charAt(0)) == true ) {
-		  				num = variableToNumber(num, vars);
-		  			}
-		  			if (Character.isLetter(num2.charAt(0)) == true) {
-		  				num2 = variableToNumber(num2, vars);
-		  			}
-		  			
-		  			//This occurs when we are looking at next symbol
-		  			if (operation == '+' || operation == '-') { //5 * 3 - 2 operation would be multiply and minus would be current
-		  				if (currentToken.charAt(0) == '*' || currentToken.charAt(0) == '/') {
-		  					tempOperation = operation; //plus or minus would turn into temp
-		  					operation = currentToken.charAt(0);
-		  					tempNumber = num;
-		  					num = num2;
-		  					num2 = "";
-		  				}
-		  				else { //current operation is not multiply or divide 
-		  					if (operation == '+' || operation == '-') {
-		  						answer = calculate(num, num2, operation);
-		  						num = answer + "";
-		  						num2 = "";
-		  						operation = currentToken.charAt(0);
-		  					}
-		  				}
-		  			}
-		  			else { 									   //****
-		  				
-		  				//this takes care if the operation variable is a multiply or divide character
-		  				if (validOperations.indexOf(operation) >= 2) {
-		  					answer = calculate(num, num2, operation);
-		  					num = answer + ""; //Now the answer is moved to be in num
-		  					num2 = "";
-		  					operation = currentToken.charAt(0);
-		  				}
-		  				
-		  				if (tempOperation.equals('\0') == false) { //cant you say if it equals + or minus, charAt? No, we had to set tempOperation to a Character wrapper class
-		  					if (operation == '+' || operation == '-') {
-		  						
-		  						//Remember that we are accounting for the tempOperation by passing it in (third parameter)
-		  						answer = calculate(tempNumber, num, tempOperation);
-		  					}
-		  				}	
-		  			} 											//****
-		  		}																						//@@@@@
-		  	}
-		  	else {
-		  		if (num.equals("")) {
-		  			num = currentToken;
-		  		}
-		  		else {
-		  			num2 = currentToken;
-		  		}
-		  	}
-  	 }//end of while loop
-  	
-  	 
-  	//Final part of code that will return the answer
-  	if (Character.isLetter(num.charAt(0)) == true) {
-  		num = variableToNumber(num, vars);
-  	}
-  	
-	if (num2.equals("") == false && Character.isLetter(num2.charAt(0)) == true) {
-		num = variableToNumber(num, vars);
-	}
-  	  
-  	if (num2.equals("") == false) {
-  		System.out.println(num + " " + num2);
-  		answer = calculate(num, num2, operation);
-  		num = answer + "";
-  	}
-  	
-  	//This makes sure we take care of the tempOperation
-  	if (tempOperation.equals('+') || tempOperation.equals('-')) {
-			answer = calculate(tempNumber, num, tempOperation);
-			num = answer + "";
-			tempOperation = '\0';
-			tempNumber = "";
-	}
-  	
-  	//This returns answer
-    answer = Float.valueOf(num);
-   	return answer;
+    	CompiledExpression compiled = compile(expr);
+    	return evaluate(compiled, compiled.bind(vars, arrays));
     }
     
 //----------Private Helper Methods----------//
     
-    //This handles both brackets and parenthesis
-    private static float evaluateSubExp(char bracketOrParent, char brackOrParenthesis2, StringTokenizer wordHolderParam, ArrayList<Variable> vars, ArrayList<Array> arrays) {
-    	
-    	//This will hold the subexpression
-    	String subExpression = "";
-    	
-    	//Keeps track of brackets and parenthesis
-    	int count = 0;
-    	
-    	//This holds the current token
-  		String currentToken = wordHolderParam.nextToken();
-  		
-  		if (currentToken.equals(bracketOrParent + "") ) {
-  			count++;
-  		}
-  		
-  		while (currentToken.charAt(0) != brackOrParenthesis2 && wordHolderParam.hasMoreTokens()) {
-  			
-  			subExpression = subExpression + currentToken;
-  			currentToken = wordHolderParam.nextToken();
-  			
-  			//This will count the number of open brackets to get to the inner most subexpression
-  			if (currentToken.charAt(0) == bracketOrParent) {
-  				count++;
-  			}
-  			else if (currentToken.charAt(0) == brackOrParenthesis2 && count != 0) {
-  	 			while (currentToken.charAt(0) == brackOrParenthesis2 && count != 0) {
-  	  				subExpression = subExpression + currentToken;
-  	  				currentToken = wordHolderParam.nextToken();
-  	  				count--;
-  	  			}	
-  	  		}
-  		}
-  		//This will recursively take in a subExpression and get the expression in between the brackets
-  		return evaluate(subExpression, vars, arrays);
-  	}
-    
-    //This will turn the variables into a number string
-    private static String variableToNumber(String variableName, ArrayList<Variable> vars) {
-   			
-    	for (int i = 0; i < vars.size(); i++){
-					if (vars.get(i).name.equals(variableName)) {
-						return vars.get(i).value + "";  					
-	  			}
-	  		}
-		return null;
-    }
-    
-    //This method does the mathematical operation based on the operation
-    private static float calculate(String number1, String num2, char oper) {
-    	if (oper == '\0') {
-    		return 0;
-    	}
-    	else if (oper == '+') {
-    		return Float.parseFloat(number1) + Float.parseFloat(num2);
-    	}
-    	else if (oper == '-') {
-    		return Float.parseFloat(number1) - Float.parseFloat(num2);
-    	}
-    	else if (oper == '*') {
-    		return Float.parseFloat(number1) * Float.parseFloat(num2);
-    	}
-    	else if (oper == '/') {
-    		return Float.parseFloat(number1) / Float.parseFloat(num2);
+    //This method applies an operator opcode of a compiled expression to two values. The compiler folds constants with it too.
+    static float apply(int opcode, float first, float second) {
+    	switch (opcode) {
+    	case CompiledExpression.ADD:
+    		return first + second;
+    	case CompiledExpression.SUBTRACT:
+    		return first - second;
+    	case CompiledExpression.MULTIPLY:
+    		return first * second;
+    	default:
+    		return first / second;
     	}
-    	return 0;
     }
 }
@@ -0,0 +1,328 @@
+package app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This class compiles an expression into a CompiledExpression. It is a recursive descent
+ * parser for the grammar
+ *
+ *    expression := term { ('+' | '-') term }
+ *    term       := factor { ('*' | '/') factor }
+ *    factor     := constant | variable | array '[' expression ']' | '(' expression ')'
+ *
+ * where spaces and tabs are ignored, names are letters, and constants are digits with an
+ * optional decimal point.
+ *
+ * The parser builds a tree of the expression in which identical subexpressions are the
+ * same node, by looking every new node up in a table of the nodes made so far. Postfix
+ * code is then generated from the tree; a subexpression that is used more than once is
+ * computed the first time, kept with STORE, and read back with LOAD after that.
+ *
+ * Operator nodes are simplified as they are made. An operator on two constants is
+ * replaced by the constant it gives, so 3*(4+5)/2 compiles to the single constant 13.5,
+ * and x*1, 1*x, x/1 and x-0 are replaced by x. Identities that do not hold for every
+ * float are left alone, like x+0 = x when x is -0.0, since -0.0 + 0 is 0.0, or x*0 = 0
+ * when x is infinite. An array item with a constant index is read directly with
+ * ELEMENT, instead of pushing the index first.
+ *
+ */
+final class ExpressionCompiler {
+
+	private final String expr;
+	private int position;
+
+	private int[] code = new int[16];
+	private int length;
+	private int depth;
+	private int maxDepth;
+	private int tempCount;
+
+	private final ArrayList<Float> constants = new ArrayList<Float>();
+	private final HashMap<Float, Integer> constantSlots = new HashMap<Float, Integer>();
+	private final SymbolTable variables = new SymbolTable();
+	private final SymbolTable arrays = new SymbolTable();
+
+	/**
+	 * Every node made so far, to find the one an identical subexpression already has
+	 */
+	private final HashMap<Node, Node> nodes = new HashMap<Node, Node>();
+
+	/**
+	 * A subexpression, with the opcode that computes it. The operand is the slot of a
+	 * VARIABLE or ARRAY node, value is the value of a CONSTANT node, and left is the
+	 * index of an ARRAY node.
+	 */
+	private static final class Node {
+		final int opcode;
+		final int operand;
+		final float value;
+		final Node left;
+		final Node right;
+
+		//Number of times the node is used in the tree, and its temporary once it is stored
+		int uses;
+		int temp = -1;
+
+		Node(int opcode, int operand, float value, Node left, Node right) {
+			this.opcode = opcode;
+			this.operand = operand;
+			this.value = value;
+			this.left = left;
+			this.right = right;
+		}
+
+		//Children are already unique, so they are compared by identity
+		public boolean equals(Object o) {
+			if (!(o instanceof Node)) {
+				return false;
+			}
+			Node other = (Node) o;
+			return opcode == other.opcode && operand == other.operand
+					&& Float.floatToIntBits(value) == Float.floatToIntBits(other.value)
+					&& left == other.left && right == other.right;
+		}
+
+		public int hashCode() {
+			int hash = (opcode * 31 + operand) * 31 + Float.floatToIntBits(value);
+			return (hash * 31 + System.identityHashCode(left)) * 31 + System.identityHashCode(right);
+		}
+
+		//This method tells if the node is the constant c, telling 0.0 and -0.0 apart
+		boolean isConstant(float c) {
+			return opcode == CompiledExpression.CONSTANT && Float.floatToIntBits(value) == Float.floatToIntBits(c);
+		}
+	}
+
+	ExpressionCompiler(String expr) {
+		this.expr = expr;
+	}
+
+	/**
+	 * Compiles the whole expression.
+	 *
+	 * @return Compiled expression
+	 * @throws IllegalArgumentException If the expression is incorrectly formatted
+	 */
+	CompiledExpression compile() {
+		Node root = expression();
+		if (peek() != '\0') {
+			throw error();
+		}
+		countUses(root);
+		generate(root);
+		float[] constantValues = new float[constants.size()];
+		for (int i = 0; i < constantValues.length; i++) {
+			constantValues[i] = constants.get(i);
+		}
+		return new CompiledExpression(expr, Arrays.copyOf(code, length), constantValues,
+				variables, arrays, maxDepth, tempCount);
+	}
+
+//----------Private Helper Methods----------//
+
+	//expression := term { ('+' | '-') term }
+	private Node expression() {
+		Node node = term();
+		for (char c = peek(); c == '+' || c == '-'; c = peek()) {
+			position++;
+			node = operator(c == '+' ? CompiledExpression.ADD : CompiledExpression.SUBTRACT, node, term());
+		}
+		return node;
+	}
+
+	//term := factor { ('*' | '/') factor }
+	private Node term() {
+		Node node = factor();
+		for (char c = peek(); c == '*' || c == '/'; c = peek()) {
+			position++;
+			node = operator(c == '*' ? CompiledExpression.MULTIPLY : CompiledExpression.DIVIDE, node, factor());
+		}
+		return node;
+	}
+
+	//factor := constant | variable | array '[' expression ']' | '(' expression ')'
+	private Node factor() {
+		char c = peek();
+		int start = position;
+		if (c == '(') {
+			position++;
+			Node node = expression();
+			expect(')');
+			return node;
+		}
+		else if (Character.isDigit(c) || c == '.') {
+			while (position < expr.length() && (Character.isDigit(expr.charAt(position)) || expr.charAt(position) == '.')) {
+				position++;
+			}
+			float value;
+			try {
+				value = Float.parseFloat(expr.substring(start, position));
+			}
+			catch (NumberFormatException e) {
+				position = start;
+				throw error();
+			}
+			return node(CompiledExpression.CONSTANT, 0, value, null, null);
+		}
+		else if (Character.isLetter(c)) {
+			while (position < expr.length() && Character.isLetter(expr.charAt(position))) {
+				position++;
+			}
+			String name = expr.substring(start, position);
+			if (peek() == '[') {
+				position++;
+				Node index = expression();
+				expect(']');
+				return node(CompiledExpression.ARRAY, arrays.add(name), 0, index, null);
+			}
+			return node(CompiledExpression.VARIABLE, variables.add(name), 0, null, null);
+		}
+		throw error();
+	}
+
+	//This method returns the node for an operator, folding constants and dropping identities
+	private Node operator(int opcode, Node left, Node right) {
+		if (left.opcode == CompiledExpression.CONSTANT && right.opcode == CompiledExpression.CONSTANT) {
+			return node(CompiledExpression.CONSTANT, 0, Expression.apply(opcode, left.value, right.value), null, null);
+		}
+		switch (opcode) {
+		case CompiledExpression.SUBTRACT:
+			if (right.isConstant(0)) {
+				return left;
+			}
+			break;
+		case CompiledExpression.MULTIPLY:
+			if (right.isConstant(1)) {
+				return left;
+			}
+			if (left.isConstant(1)) {
+				return right;
+			}
+			break;
+		case CompiledExpression.DIVIDE:
+			if (right.isConstant(1)) {
+				return left;
+			}
+			break;
+		}
+		return node(opcode, 0, 0, left, right);
+	}
+
+	//This method returns the node for a subexpression, the same one every time it is made
+	private Node node(int opcode, int operand, float value, Node left, Node right) {
+		Node node = new Node(opcode, operand, value, left, right);
+		Node existing = nodes.get(node);
+		if (existing != null) {
+			return existing;
+		}
+		nodes.put(node, node);
+		return node;
+	}
+
+	//This method counts how many times each node is used, going into each node only once.
+	//Long chains like a + b + c + ... nest to the left, so the left side is followed in a loop.
+	private void countUses(Node node) {
+		while (node != null && node.uses++ == 0) {
+			countUses(node.right);
+			node = node.left;
+		}
+	}
+
+	//This method generates the code of a node, keeping the value of a shared one in a temporary.
+	//Like countUses, it follows the left side of a chain of operators in a loop.
+	private void generate(Node node) {
+		ArrayList<Node> operators = new ArrayList<Node>();
+		while (node.temp == -1 && node.right != null) {
+			operators.add(node);
+			node = node.left;
+		}
+		if (node.temp != -1) {
+			emit(CompiledExpression.LOAD, node.temp);
+		}
+		else if (node.opcode == CompiledExpression.CONSTANT) {
+			emit(CompiledExpression.CONSTANT, constantSlot(node.value));
+		}
+		else if (node.opcode == CompiledExpression.ARRAY && node.left.opcode == CompiledExpression.CONSTANT) {
+			emit(CompiledExpression.ELEMENT, node.operand);
+			append((int) node.left.value);
+			store(node);
+		}
+		else {
+			if (node.opcode == CompiledExpression.ARRAY) {
+				generate(node.left);
+			}
+			emit(node.opcode, node.operand);
+			store(node);
+		}
+		for (int i = operators.size() - 1; i >= 0; i--) {
+			Node operator = operators.get(i);
+			generate(operator.right);
+			emit(operator.opcode);
+			store(operator);
+		}
+	}
+
+	//This method keeps the value of a node that is used again in a new temporary
+	private void store(Node node) {
+		if (node.uses > 1 && node.left != null) {
+			node.temp = tempCount++;
+			emit(CompiledExpression.STORE, node.temp);
+		}
+	}
+
+	//This method skips spaces and tabs, and returns the next character, or '\0' at the end
+	private char peek() {
+		while (position < expr.length() && (expr.charAt(position) == ' ' || expr.charAt(position) == '\t')) {
+			position++;
+		}
+		return position < expr.length() ? expr.charAt(position) : '\0';
+	}
+
+	//This method skips over a character that must come next
+	private void expect(char c) {
+		if (peek() != c) {
+			throw error();
+		}
+		position++;
+	}
+
+	//This method appends an operator, which pops two values and pushes one
+	private void emit(int opcode) {
+		append(opcode);
+		depth--;
+	}
+
+	//This method appends an instruction with an operand. ARRAY replaces the index, STORE keeps the value, the others push one.
+	private void emit(int opcode, int operand) {
+		append(opcode);
+		append(operand);
+		if (opcode != CompiledExpression.ARRAY && opcode != CompiledExpression.STORE) {
+			maxDepth = Math.max(maxDepth, ++depth);
+		}
+	}
+	//This method appends an int to the code, growing it if needed
+	private void append(int value) {
+		if (length == code.length) {
+			code = Arrays.copyOf(code, length * 2);
+		}
+		code[length++] = value;
+	}
+
+	//This method returns the index of a constant, adding it if it is not there yet
+	private int constantSlot(float value) {
+		Integer slot = constantSlots.get(value);
+		if (slot == null) {
+			slot = constants.size();
+			constantSlots.put(value, slot);
+			constants.add(value);
+		}
+		return slot;
+	}
+
+	//This method returns the exception for a format error at the current position
+	private IllegalArgumentException error() {
+		return new IllegalArgumentException("Incorrect Format at position " + position + ": " + expr);
+	}
+}
@@ -0,0 +1,117 @@
+package app;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class remembers the results of evaluating compiled expressions, keyed on the
+ * expression, the bindings and the version of the bindings. Re-evaluating an expression
+ * whose variables have not changed since is then a lookup. When the cache is full, the
+ * least recently used result is dropped.
+ *
+ * Values must only be changed through the Bindings methods, or followed by
+ * Bindings.markChanged(), for the cache to notice them. Like Bindings, a cache is not
+ * safe to share between threads.
+ *
+ */
+public class ResultCache {
+
+	/**
+	 * Cached results, in least recently used order
+	 */
+	private final LinkedHashMap<Key, Float> results;
+
+	/**
+	 * Number of lookups that found a result, and that did not
+	 */
+	private long hits;
+	private long misses;
+
+	/**
+	 * Expression, bindings and version of the bindings that a result was computed for
+	 */
+	private static final class Key {
+		final CompiledExpression compiled;
+		final Bindings bindings;
+		final long version;
+
+		Key(CompiledExpression compiled, Bindings bindings, long version) {
+			this.compiled = compiled;
+			this.bindings = bindings;
+			this.version = version;
+		}
+
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return compiled == other.compiled && bindings == other.bindings && version == other.version;
+		}
+
+		public int hashCode() {
+			return (System.identityHashCode(compiled) * 31 + System.identityHashCode(bindings)) * 31 + Long.hashCode(version);
+		}
+	}
+
+	/**
+	 * Initializes an empty cache.
+	 *
+	 * @param capacity Largest number of results kept
+	 */
+	public ResultCache(final int capacity) {
+		results = new LinkedHashMap<Key, Float>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry<Key, Float> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the result of a compiled expression with a set of bindings, evaluating it
+	 * only if it has not been evaluated with the current values of the bindings yet.
+	 *
+	 * @param compiled The compiled expression
+	 * @param bindings Values for the variables and arrays of the expression, by slot
+	 * @return Result of evaluation
+	 */
+	public float evaluate(CompiledExpression compiled, Bindings bindings) {
+		Key key = new Key(compiled, bindings, bindings.version());
+		Float result = results.get(key);
+		if (result != null) {
+			hits++;
+			return result;
+		}
+		misses++;
+		float value = Expression.evaluate(compiled, bindings);
+		results.put(key, value);
+		return value;
+	}
+
+	/**
+	 * Returns the number of evaluations that were answered from the cache.
+	 *
+	 * @return Number of hits
+	 */
+	public long hits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of evaluations that had to run the expression.
+	 *
+	 * @return Number of misses
+	 */
+	public long misses() {
+		return misses;
+	}
+
+	/**
+	 * Drops every cached result.
+	 */
+	public void clear() {
+		results.clear();
+	}
+}
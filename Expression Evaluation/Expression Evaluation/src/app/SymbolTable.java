@@ -0,0 +1,84 @@
+package app;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * This class maps names to dense slot numbers 0, 1, 2, ... in the order the names are
+ * added. Names are hashed once, when an expression is compiled or bound, and from then
+ * on values are read by slot with a plain array index.
+ *
+ */
+public class SymbolTable {
+
+	/**
+	 * Slot of every name
+	 */
+	private final HashMap<String, Integer> slots;
+
+	/**
+	 * Name of every slot
+	 */
+	private final ArrayList<String> names;
+
+	/**
+	 * Initializes an empty table.
+	 */
+	public SymbolTable() {
+		slots = new HashMap<String, Integer>();
+		names = new ArrayList<String>();
+	}
+
+	/**
+	 * Returns the slot of a name, giving it the next free slot if it is not in the table.
+	 *
+	 * @param name Name
+	 * @return Slot of the name
+	 */
+	public int add(String name) {
+		Integer slot = slots.get(name);
+		if (slot == null) {
+			slot = names.size();
+			slots.put(name, slot);
+			names.add(name);
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the slot of a name.
+	 *
+	 * @param name Name
+	 * @return Slot of the name, or -1 if it is not in the table
+	 */
+	public int slotOf(String name) {
+		Integer slot = slots.get(name);
+		return slot == null ? -1 : slot;
+	}
+
+	/**
+	 * Returns the name in a slot.
+	 *
+	 * @param slot Slot, from 0 to size() - 1
+	 * @return Name in the slot
+	 */
+	public String nameOf(int slot) {
+		return names.get(slot);
+	}
+
+	/**
+	 * Returns the number of names in the table.
+	 *
+	 * @return Number of names, which is also the number of slots in use
+	 */
+	public int size() {
+		return names.size();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return names.toString();
+	}
+}
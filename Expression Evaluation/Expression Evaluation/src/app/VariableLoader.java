@@ -0,0 +1,357 @@
+package app;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class loads variable files, in the format of Expression.loadVariableValues,
+ * straight from their bytes. Files are memory mapped, names are looked up in a hash table
+ * of their bytes without making a String, and integers are parsed digit by digit, so a
+ * large file is read in one pass with no allocation other than the array values.
+ *
+ * Each line is a name and a value for a simple variable, or a name, a length and any
+ * number of (index,value) pairs for an array:
+ *    a 3
+ *    A 5 (2,3) (4,5)
+ *
+ */
+final class VariableLoader {
+
+	/**
+	 * Hash table of the known names, by their bytes, with open addressing
+	 */
+	private Entry[] table;
+	private int size;
+
+	/**
+	 * Lists to load the values into
+	 */
+	private final ArrayList<Variable> vars;
+	private final ArrayList<Array> arrays;
+
+	/**
+	 * True if names that are not in the lists are added to them, false if their lines are skipped
+	 */
+	private final boolean addMissing;
+
+	/**
+	 * Input being parsed, position in it, and current line number for error messages
+	 */
+	private ByteBuffer in;
+	private int position;
+	private int line;
+
+	/**
+	 * A known name, with the variable and the array that have it
+	 */
+	private static final class Entry {
+		final byte[] name;
+		final int hash;
+		Variable var;
+		Array arr;
+
+		Entry(byte[] name, int hash) {
+			this.name = name;
+			this.hash = hash;
+		}
+	}
+
+	/**
+	 * Initializes a loader for a set of variables and arrays.
+	 *
+	 * @param vars The variables array list
+	 * @param arrays The arrays array list
+	 * @param addMissing True to add names that are not in the lists, false to skip their lines
+	 */
+	VariableLoader(ArrayList<Variable> vars, ArrayList<Array> arrays, boolean addMissing) {
+		this.vars = vars;
+		this.arrays = arrays;
+		this.addMissing = addMissing;
+		table = new Entry[Integer.highestOneBit(Math.max(16, 4 * (vars.size() + arrays.size())))];
+		for (Variable var : vars) {
+			entryFor(var.name).var = var;
+		}
+		for (Array arr : arrays) {
+			entryFor(arr.name).arr = arr;
+		}
+	}
+
+	/**
+	 * Loads a variable file, by mapping it into memory.
+	 *
+	 * @param file Variable file
+	 * @throws IOException If there is a problem reading the file, or it is incorrectly formatted
+	 */
+	void load(File file)
+	throws IOException {
+		try (FileChannel channel = new FileInputStream(file).getChannel()) {
+			load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Loads variable values from a stream, up to the end of the stream.
+	 *
+	 * @param stream Stream of the variable file, which is not closed
+	 * @throws IOException If there is a problem reading the stream, or it is incorrectly formatted
+	 */
+	void load(InputStream stream)
+	throws IOException {
+
+		//The stream is read straight into one array, which doubles when it fills up
+		byte[] bytes = new byte[8192];
+		int length = 0;
+		int count;
+		while ((count = stream.read(bytes, length, bytes.length - length)) != -1) {
+			length += count;
+			if (length == bytes.length) {
+				bytes = Arrays.copyOf(bytes, bytes.length * 2);
+			}
+		}
+		load(ByteBuffer.wrap(bytes, 0, length));
+	}
+
+	/**
+	 * Loads variable values from the remaining bytes of a buffer.
+	 *
+	 * @param buffer Bytes of the variable file
+	 * @throws IOException If it is incorrectly formatted
+	 */
+	void load(ByteBuffer buffer)
+	throws IOException {
+		in = buffer;
+		position = buffer.position();
+		line = 0;
+		while (position < in.limit()) {
+			line++;
+			loadLine();
+		}
+	}
+
+//----------Private Helper Methods----------//
+
+	//This method loads one line, and moves past its end
+	private void loadLine()
+	throws IOException {
+		skipSpaces();
+		if (atEndOfLine()) {
+			skipLine();
+			return;
+		}
+
+		//Hash the name while finding its end
+		int start = position;
+		int hash = 0;
+		while (position < in.limit() && !isSpace(in.get(position)) && !atEndOfLine()) {
+			hash = 31 * hash + in.get(position);
+			position++;
+		}
+		int end = position;
+		Entry entry = find(start, end - start, hash);
+		if (entry == null && !addMissing) {
+			skipLine();
+			return;
+		}
+		skipSpaces();
+		int num = parseInt();
+		skipSpaces();
+
+		//A name and a value only is a simple variable, unless it is only known as an array
+		if (atEndOfLine() && (entry == null || entry.var != null || entry.arr == null)) {
+			if (entry == null) {
+				entry = add(start, end, hash);
+			}
+			if (entry.var == null) {
+				entry.var = new Variable(new String(entry.name, StandardCharsets.UTF_8));
+				vars.add(entry.var);
+			}
+			entry.var.value = num;
+			skipLine();
+			return;
+		}
+		if (entry == null) {
+			entry = add(start, end, hash);
+		}
+		if (entry.arr == null) {
+			if (!addMissing) {
+				skipLine();
+				return;
+			}
+			entry.arr = new Array(new String(entry.name, StandardCharsets.UTF_8));
+			arrays.add(entry.arr);
+		}
+		if (num < 0) {
+			throw error("negative array length");
+		}
+		int[] values = new int[num];
+
+		//Following are (index,val) pairs
+		while (!atEndOfLine()) {
+			expect('(');
+			skipSpaces();
+			int index = parseInt();
+			skipSpaces();
+			expect(',');
+			skipSpaces();
+			int val = parseInt();
+			skipSpaces();
+			expect(')');
+			skipSpaces();
+			if (index < 0 || index >= num) {
+				throw error("index " + index + " out of bounds");
+			}
+			values[index] = val;
+		}
+		entry.arr.values = values;
+		skipLine();
+	}
+
+	//This method parses an optionally signed integer at the current position
+	private int parseInt()
+	throws IOException {
+		boolean negative = false;
+		if (position < in.limit() && (in.get(position) == '-' || in.get(position) == '+')) {
+			negative = in.get(position) == '-';
+			position++;
+		}
+		int start = position;
+		long value = 0;
+		while (position < in.limit()) {
+			int digit = in.get(position) - '0';
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+			value = value * 10 + digit;
+			if (value > (long) Integer.MAX_VALUE + 1) {
+				throw error("number too large");
+			}
+			position++;
+		}
+		if (position == start) {
+			throw error("number expected");
+		}
+		if (negative) {
+			value = -value;
+		}
+		if (value > Integer.MAX_VALUE) {
+			throw error("number too large");
+		}
+		return (int) value;
+	}
+
+	//This method skips over a character that must come next
+	private void expect(char c)
+	throws IOException {
+		if (position >= in.limit() || in.get(position) != c) {
+			throw error("'" + c + "' expected");
+		}
+		position++;
+	}
+
+	//This method skips spaces and tabs
+	private void skipSpaces() {
+		while (position < in.limit() && isSpace(in.get(position))) {
+			position++;
+		}
+	}
+
+	//This method skips past the end of the current line
+	private void skipLine() {
+		while (position < in.limit() && in.get(position) != '\n') {
+			position++;
+		}
+		position++;
+	}
+
+	//This method tells if the current position is at the end of a line or of the input
+	private boolean atEndOfLine() {
+		return position >= in.limit() || in.get(position) == '\n' || in.get(position) == '\r';
+	}
+
+	//This method tells if a byte is a space or a tab
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\t';
+	}
+
+	//This method finds the entry for the name in bytes start..start+length of the input
+	private Entry find(int start, int length, int hash) {
+		for (int i = hash & (table.length - 1); table[i] != null; i = (i + 1) & (table.length - 1)) {
+			Entry entry = table[i];
+			if (entry.hash == hash && entry.name.length == length && nameEquals(entry.name, start)) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	//This method tells if the input at start holds the given name
+	private boolean nameEquals(byte[] name, int start) {
+		for (int i = 0; i < name.length; i++) {
+			if (in.get(start + i) != name[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//This method adds an entry for the name in bytes start..end of the input
+	private Entry add(int start, int end, int hash) {
+		byte[] name = new byte[end - start];
+		for (int i = 0; i < name.length; i++) {
+			name[i] = in.get(start + i);
+		}
+		return insert(new Entry(name, hash));
+	}
+
+	//This method returns the entry for a name, adding one if there is none
+	private Entry entryFor(String name) {
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		int hash = 0;
+		for (byte b : bytes) {
+			hash = 31 * hash + b;
+		}
+		for (int i = hash & (table.length - 1); table[i] != null; i = (i + 1) & (table.length - 1)) {
+			if (table[i].hash == hash && Arrays.equals(table[i].name, bytes)) {
+				return table[i];
+			}
+		}
+		return insert(new Entry(bytes, hash));
+	}
+
+	//This method inserts a new entry, growing the table to keep it at most half full
+	private Entry insert(Entry entry) {
+		if (2 * (size + 1) > table.length) {
+			Entry[] old = table;
+			table = new Entry[old.length * 2];
+			for (Entry e : old) {
+				if (e != null) {
+					place(e);
+				}
+			}
+		}
+		place(entry);
+		size++;
+		return entry;
+	}
+
+	//This method puts an entry in the first free slot from its hash
+	private void place(Entry entry) {
+		int i = entry.hash & (table.length - 1);
+		while (table[i] != null) {
+			i = (i + 1) & (table.length - 1);
+		}
+		table[i] = entry;
+	}
+
+	//This method returns the exception for a format error on the current line
+	private IOException error(String reason) {
+		return new IOException("Incorrect Format on line " + line + ": " + reason);
+	}
+}
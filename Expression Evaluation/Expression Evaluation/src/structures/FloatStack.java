@@ -0,0 +1,104 @@
+package structures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A stack of float values, kept in a primitive array so that pushing and popping
+ * never box a value or allocate, once the array is large enough.
+ *
+ */
+public class FloatStack {
+
+	/**
+	 * Items in the stack, of which the first size are in use.
+	 */
+	private float[] items;
+
+	/**
+	 * Number of items in stack.
+	 */
+	private int size;
+
+	/**
+	 * Initializes stack to empty.
+	 */
+	public FloatStack() {
+		this(16);
+	}
+
+	/**
+	 * Initializes stack to empty, with room for a number of items before it has to grow.
+	 *
+	 * @param capacity Number of items.
+	 */
+	public FloatStack(int capacity) {
+		items = new float[Math.max(capacity, 1)];
+		size = 0;
+	}
+
+	/**
+	 * Pushes a new item on top of stack.
+	 *
+	 * @param item Item to push.
+	 */
+	public void push(float item) {
+		if (size == items.length) {
+			items = Arrays.copyOf(items, size * 2);
+		}
+		items[size++] = item;
+	}
+
+	/**
+	 * Pops item at top of stack and returns it.
+	 *
+	 * @return Popped item.
+	 * @throws NoSuchElementException If stack is empty.
+	 */
+	public float pop()
+	throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException("can't pop from an empty stack");
+		}
+		return items[--size];
+	}
+
+	/**
+	 * Returns item on top of stack, without popping it.
+	 *
+	 * @return Item at top of stack.
+	 * @throws NoSuchElementException If stack is empty.
+	 */
+	public float peek()
+	throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException("can't peek on an empty stack");
+		}
+		return items[size-1];
+	}
+
+	/**
+	 * Tells if stack is empty.
+	 *
+	 * @return True if stack is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns number of items in stack.
+	 *
+	 * @return Number of items in stack.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Empties the stack.
+	 */
+	public void clear() {
+		size = 0;
+	}
+}